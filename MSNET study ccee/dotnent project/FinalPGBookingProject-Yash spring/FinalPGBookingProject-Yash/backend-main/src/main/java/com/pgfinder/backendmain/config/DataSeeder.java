@@ -2,6 +2,7 @@ package com.pgfinder.backendmain.config;
 
 import com.pgfinder.backendmain.entity.PG;
 import com.pgfinder.backendmain.repository.PGRepository;
+import com.pgfinder.backendmain.service.PGService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -12,9 +13,11 @@ import java.util.List;
 public class DataSeeder implements CommandLineRunner {
 
     private final PGRepository pgRepository;
+    private final PGService pgService;
 
-    public DataSeeder(PGRepository pgRepository) {
+    public DataSeeder(PGRepository pgRepository, PGService pgService) {
         this.pgRepository = pgRepository;
+        this.pgService = pgService;
     }
 
     @Override
@@ -58,7 +61,10 @@ public class DataSeeder implements CommandLineRunner {
             pg4.setGender("Co-ed");
             pg4.setImageUrls(Arrays.asList("https://images.unsplash.com/photo-1493663284031-b7e3aefcae8e?q=80&w=2070&auto=format&fit=crop"));
 
-            pgRepository.saveAll(Arrays.asList(pg1, pg2, pg3, pg4));
+            // Saved through PGService so the in-memory catalog picks them up
+            for (PG pg : Arrays.asList(pg1, pg2, pg3, pg4)) {
+                pgService.createPG(pg);
+            }
             System.out.println("Database seeded with 4 PGs.");
         }
     }
@@ -1,9 +1,13 @@
 package com.pgfinder.backendmain.controller;
 
+import com.pgfinder.backendmain.dto.PGListItem;
 import com.pgfinder.backendmain.entity.PG;
 import com.pgfinder.backendmain.entity.User;
 import com.pgfinder.backendmain.repository.PGRepository;
 import com.pgfinder.backendmain.repository.UserRepository;
+import com.pgfinder.backendmain.service.BookingProjections;
+import com.pgfinder.backendmain.service.PGService;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,12 +21,17 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final PGRepository pgRepository;
-    private final com.pgfinder.backendmain.repository.BookingRepository bookingRepository;
+    private final BookingProjections bookingProjections;
+    private final PGService pgService;
+    private final CacheManager cacheManager;
 
-    public AdminController(UserRepository userRepository, PGRepository pgRepository, com.pgfinder.backendmain.repository.BookingRepository bookingRepository) {
+    public AdminController(UserRepository userRepository, PGRepository pgRepository, BookingProjections bookingProjections,
+                           PGService pgService, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.pgRepository = pgRepository;
-        this.bookingRepository = bookingRepository;
+        this.bookingProjections = bookingProjections;
+        this.pgService = pgService;
+        this.cacheManager = cacheManager;
     }
 
     // --- Dashboard Statistics ---
@@ -37,11 +46,9 @@ public class AdminController {
         long totalOwners = allUsers.stream().filter(u -> u.getRoles().contains("ROLE_OWNER")).count();
         
         long totalPGs = pgRepository.count();
-        long totalBookings = bookingRepository.count();
-        long usersWithBookings = bookingRepository.findAll().stream()
-                .map(com.pgfinder.backendmain.entity.Booking::getUsername)
-                .distinct()
-                .count();
+        // Booking figures come from the event-log projections instead of scanning the bookings table
+        long totalBookings = bookingProjections.totalBookings();
+        long usersWithBookings = bookingProjections.usersWithBookings();
         
         stats.put("totalUsers", totalUsers);
         stats.put("totalDonors", totalDonors);
@@ -49,10 +56,31 @@ public class AdminController {
         stats.put("totalPGs", totalPGs);
         stats.put("totalBookings", totalBookings);
         stats.put("usersWithBookings", usersWithBookings);
+        stats.put("bookingsByStatus", bookingProjections.countsByStatus());
 
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<java.util.Map<String, Object>> getCacheStats() {
+        java.util.Map<String, Object> stats = new java.util.LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(name);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.stats.CacheStats cacheStats = nativeCache.stats();
+            java.util.Map<String, Object> entry = new java.util.LinkedHashMap<>();
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", cacheStats.hitCount());
+            entry.put("misses", cacheStats.missCount());
+            entry.put("hitRate", cacheStats.hitRate());
+            entry.put("evictions", cacheStats.evictionCount());
+            stats.put(name, entry);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
     // --- User CRUD ---
 
     @GetMapping("/users")
@@ -99,21 +127,24 @@ public class AdminController {
         return pgRepository.findAll();
     }
 
+    @GetMapping("/pgs/summary")
+    public List<PGListItem> getPGSummaries() {
+        return pgService.getPGSummaries();
+    }
+
+    // PG writes go through PGService so the public catalog sees them
+
     @PostMapping("/pgs")
     public PG createPG(@RequestBody PG pg) {
-        return pgRepository.save(pg);
+        return pgService.createPG(pg);
     }
 
     @PutMapping("/pgs/{id}")
     public ResponseEntity<PG> updatePG(@PathVariable Long id, @RequestBody PG pgDetails) {
-        return pgRepository.findById(id).map(pg -> {
-            pg.setName(pgDetails.getName());
-            pg.setAddress(pgDetails.getAddress());
-            pg.setPrice(pgDetails.getPrice());
-            pg.setDescription(pgDetails.getDescription());
-            // Update other fields as necessary
-            return ResponseEntity.ok(pgRepository.save(pg));
-        }).orElse(ResponseEntity.notFound().build());
+        if (!pgRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(pgService.updatePG(id, pgDetails));
     }
 
     @DeleteMapping("/pgs/{id}")
@@ -121,7 +152,7 @@ public class AdminController {
         if (!pgRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
-        pgRepository.deleteById(id);
+        pgService.deletePG(id);
         return ResponseEntity.ok("PG listing deleted successfully");
     }
 }
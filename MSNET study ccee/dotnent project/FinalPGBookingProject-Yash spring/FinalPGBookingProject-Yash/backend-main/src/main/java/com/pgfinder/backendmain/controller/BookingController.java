@@ -1,13 +1,26 @@
 package com.pgfinder.backendmain.controller;
 
+import com.pgfinder.backendmain.dto.BookingPageResponse;
+import com.pgfinder.backendmain.dto.BookingStatusResult;
+import com.pgfinder.backendmain.dto.BookingStatusUpdate;
+import com.pgfinder.backendmain.dto.BookingSummary;
+import com.pgfinder.backendmain.dto.WaitlistSummary;
 import com.pgfinder.backendmain.entity.Booking;
+import com.pgfinder.backendmain.entity.BookingStatus;
+import com.pgfinder.backendmain.exception.ConflictException;
+import com.pgfinder.backendmain.service.BookingIdempotency;
 import com.pgfinder.backendmain.service.BookingService;
+import com.pgfinder.backendmain.service.WaitlistService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,9 +31,16 @@ public class BookingController {
 
     private com.pgfinder.backendmain.service.EmailService emailService;
 
-    public BookingController(BookingService bookingService, com.pgfinder.backendmain.service.EmailService emailService) {
+    private BookingIdempotency bookingIdempotency;
+
+    private WaitlistService waitlistService;
+
+    public BookingController(BookingService bookingService, com.pgfinder.backendmain.service.EmailService emailService,
+                             BookingIdempotency bookingIdempotency, WaitlistService waitlistService) {
         this.bookingService = bookingService;
         this.emailService = emailService;
+        this.bookingIdempotency = bookingIdempotency;
+        this.waitlistService = waitlistService;
     }
 
     @GetMapping("/test")
@@ -38,23 +58,70 @@ public class BookingController {
         }
     }
 
+    // With an Idempotency-Key header, retries of the same request return the original booking
     @PostMapping("/{pgId}")
-    public ResponseEntity<Booking> createBooking(
+    public ResponseEntity<BookingSummary> createBooking(
             @PathVariable Long pgId,
             @RequestParam(required = false) Long donorId,
-            @RequestParam(required = false, defaultValue = "false") boolean requestAid) {
+            @RequestParam(required = false, defaultValue = "false") boolean requestAid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
-        return new ResponseEntity<>(bookingService.createBooking(pgId, username, donorId, requestAid), HttpStatus.CREATED);
+        if (idempotencyKey == null) {
+            Booking booking = bookingService.createBooking(pgId, username, donorId, requestAid, checkIn, checkOut);
+            return new ResponseEntity<>(BookingSummary.from(booking), HttpStatus.CREATED);
+        }
+        String fingerprint = pgId + ":" + donorId + ":" + requestAid + ":" + checkIn + ":" + checkOut;
+        BookingIdempotency.Outcome outcome = bookingIdempotency.execute(username, idempotencyKey, fingerprint,
+                () -> BookingSummary.from(bookingService.createBooking(pgId, username, donorId, requestAid,
+                        checkIn, checkOut)));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.booking());
+    }
+
+    // Only for PGs that are full (409 otherwise); the oldest waiter gets the next bed freed by a
+    // cancellation, as a PENDING (or REQUESTING_AID) booking. Owners reject a booking by cancelling it.
+    @PostMapping("/{pgId}/waitlist")
+    public ResponseEntity<WaitlistSummary> joinWaitlist(
+            @PathVariable Long pgId,
+            @RequestParam(required = false, defaultValue = "false") boolean requestAid) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return new ResponseEntity<>(waitlistService.join(pgId, auth.getName(), requestAid), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long entryId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        waitlistService.leave(entryId, auth.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/my-waitlist")
+    public List<WaitlistSummary> getMyWaitlist() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return waitlistService.getWaitlistByUser(auth.getName());
     }
 
+    // Without paging params this is the full queue (what the donor dashboard loads); with any of
+    // them it returns one keyset page, oldest request first
     @GetMapping("/aid-requests")
-    public List<Booking> getAidRequests() {
-        return bookingService.getBookingsByStatus("REQUESTING_AID");
+    public ResponseEntity<?> getAidRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String locality) {
+        if (cursor == null && limit == null && minPrice == null && maxPrice == null && locality == null) {
+            return ResponseEntity.ok(bookingService.getBookingsByStatus(BookingStatus.REQUESTING_AID.name()));
+        }
+        return ResponseEntity.ok(bookingService.getAidQueue(cursor, limit, minPrice, maxPrice, locality));
     }
 
     @PutMapping("/{bookingId}/sponsor")
-    public ResponseEntity<Booking> sponsorBooking(@PathVariable Long bookingId, @RequestBody java.util.Map<String, Double> payload) {
+    public ResponseEntity<BookingSummary> sponsorBooking(@PathVariable Long bookingId, @RequestBody java.util.Map<String, Double> payload) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String donorUsername = auth.getName();
         
@@ -63,7 +130,7 @@ public class BookingController {
              return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.ok(bookingService.approveSponsorship(bookingId, donorUsername, percentage));
+        return ResponseEntity.ok(BookingSummary.from(bookingService.approveSponsorship(bookingId, donorUsername, percentage)));
     }
 
     @PutMapping("/{bookingId}/status")
@@ -72,7 +139,11 @@ public class BookingController {
         try {
             String status = payload.get("status");
             System.out.println("DEBUG: Setting status to: " + status);
-            return ResponseEntity.ok(bookingService.updateBookingStatus(bookingId, status));
+            return ResponseEntity.ok(BookingSummary.from(bookingService.updateBookingStatus(bookingId, status)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ConflictException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             System.err.println("ERROR in updateBookingStatus: " + e.getMessage());
             e.printStackTrace();
@@ -80,15 +151,36 @@ public class BookingController {
         }
     }
 
+    // Owner bulk transitions (e.g. confirming a move-in batch): one transaction, one result per item in request order
+    @PreAuthorize("hasRole('OWNER')")
+    @PutMapping("/status")
+    public List<BookingStatusResult> updateBookingStatuses(@RequestBody List<BookingStatusUpdate> updates) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return bookingService.updateBookingStatuses(auth.getName(), updates);
+    }
+
     @GetMapping("/my-bookings")
-    public List<Booking> getMyBookings() {
+    public List<BookingSummary> getMyBookings() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
         return bookingService.getBookingsByUser(username);
     }
 
+    // Owner dashboard: bookings across all of the owner's PGs, paged, optionally filtered by status
+    @PreAuthorize("hasRole('OWNER')")
+    @GetMapping("/owner")
+    public BookingPageResponse getOwnerBookings(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false, defaultValue = "bookingDate") String sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return bookingService.getBookingsByOwner(auth.getName(), status, sort, direction, page, size);
+    }
+
     @GetMapping("/my-sponsorships")
-    public List<Booking> getMySponsorships() {
+    public List<BookingSummary> getMySponsorships() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
         return bookingService.getBookingsByDonor(username);
@@ -1,29 +1,72 @@
 package com.pgfinder.backendmain.controller;
 
+import com.pgfinder.backendmain.dto.AutocompleteSuggestion;
+import com.pgfinder.backendmain.dto.PGBatchResponse;
+import com.pgfinder.backendmain.dto.PGListItem;
+import com.pgfinder.backendmain.dto.PGNearbyResult;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.dto.PGSearchResponse;
+import com.pgfinder.backendmain.dto.SimilarPG;
+import com.pgfinder.backendmain.dto.StayAvailability;
+import com.pgfinder.backendmain.dto.TrendingPG;
 import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.exception.ResourceNotFoundException;
+import com.pgfinder.backendmain.service.PGAutocomplete;
+import com.pgfinder.backendmain.service.PGAvailability;
+import com.pgfinder.backendmain.service.PGCatalog;
+import com.pgfinder.backendmain.service.PGExporter;
+import com.pgfinder.backendmain.service.PGGeoIndex;
 import com.pgfinder.backendmain.service.PGService;
+import com.pgfinder.backendmain.service.PGSimilarity;
+import com.pgfinder.backendmain.service.PGTrending;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/pgs")
 public class PGController {
 
+    private static final int MAX_BATCH_IDS = 500;
+
     private PGService pgService;
     private com.pgfinder.backendmain.service.FileService fileService;
+    private PGCatalog pgCatalog;
+    private PGGeoIndex pgGeoIndex;
+    private PGAutocomplete pgAutocomplete;
+    private PGTrending pgTrending;
+    private PGSimilarity pgSimilarity;
+    private PGExporter pgExporter;
+    private PGAvailability pgAvailability;
 
     @org.springframework.beans.factory.annotation.Autowired
     private org.springframework.web.client.RestTemplate restTemplate;
 
-    public PGController(PGService pgService, com.pgfinder.backendmain.service.FileService fileService) {
+    public PGController(PGService pgService, com.pgfinder.backendmain.service.FileService fileService, PGCatalog pgCatalog,
+                        PGGeoIndex pgGeoIndex, PGAutocomplete pgAutocomplete, PGTrending pgTrending,
+                        PGSimilarity pgSimilarity, PGExporter pgExporter, PGAvailability pgAvailability) {
         this.pgService = pgService;
         this.fileService = fileService;
+        this.pgCatalog = pgCatalog;
+        this.pgGeoIndex = pgGeoIndex;
+        this.pgAutocomplete = pgAutocomplete;
+        this.pgTrending = pgTrending;
+        this.pgSimilarity = pgSimilarity;
+        this.pgExporter = pgExporter;
+        this.pgAvailability = pgAvailability;
     }
 
     // Public: Payment Proxy
@@ -39,15 +82,145 @@ public class PGController {
     }
 
     // Public: anyone can search
+    // Without paging params the full list is returned; with sort/cursor/limit a keyset page is returned.
+    // The full list carries a catalog-wide ETag, so revalidation is a 304 without touching the DB
     @GetMapping
-    public List<PG> getAllPGs() {
-        return pgService.getAllPGs();
+    public ResponseEntity<?> getAllPGs(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (sort == null && cursor == null && limit == null) {
+            PGCatalog.Listing listing = pgCatalog.listing();
+            if (request.checkNotModified(listing.etag(), listing.lastModified())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(listing.items());
+        }
+        return ResponseEntity.ok(pgService.getPGPage(sort, cursor, limit));
+    }
+
+    // Public: full catalog as NDJSON, streamed from a DB cursor for partner feeds and analytics
+    @GetMapping(value = "/export", produces = org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPGs() {
+        StreamingResponseBody body = pgExporter::exportNdjson;
+        return ResponseEntity.ok().contentType(org.springframework.http.MediaType.APPLICATION_NDJSON).body(body);
     }
 
-    // Public: get details
+    // Public: filtered search, evaluated in the database; with q the results are ranked by relevance.
+    // Facet counts for the same filter come from the in-memory bitset index
+    @GetMapping("/search")
+    public ResponseEntity<PGSearchResponse> searchPGs(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) String locality,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false, defaultValue = "price") String sort,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        PGSearchCriteria criteria = new PGSearchCriteria(minPrice, maxPrice, gender, owner, address, q, locality,
+                checkIn, checkOut);
+        return ResponseEntity.ok(pgService.searchPGs(criteria, sort, page, size));
+    }
+
+    // Public: search-box suggestions for PG names and localities
+    @GetMapping("/autocomplete")
+    public List<AutocompleteSuggestion> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "5") int limit) {
+        return pgAutocomplete.suggest(prefix, limit);
+    }
+
+    // Public: "trending" rail ranked by recent bookings and reviews, optionally within one locality
+    @GetMapping("/trending")
+    public List<TrendingPG> getTrendingPGs(
+            @RequestParam(required = false) String locality,
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return pgTrending.top(locality, limit);
+    }
+
+    // Public: PGs within radiusKm of a point, nearest first
+    @GetMapping("/nearby")
+    public List<PGNearbyResult> getNearbyPGs(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false, defaultValue = "3") double radiusKm,
+            @RequestParam(required = false, defaultValue = "50") int limit) {
+        return pgGeoIndex.withinRadius(lat, lng, radiusKm, limit);
+    }
+
+    // Public: PGs inside a bounding box, nearest to the box centre first
+    @GetMapping("/within")
+    public List<PGNearbyResult> getPGsWithinBox(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false, defaultValue = "50") int limit) {
+        return pgGeoIndex.withinBox(minLat, minLng, maxLat, maxLng, limit);
+    }
+
+    // Public: several PGs in one call, e.g. /batch?ids=3,1,7 (served from the in-memory catalog)
+    @GetMapping("/batch")
+    public PGBatchResponse getPGsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        List<PGRecord> items = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            PGRecord pg = id != null ? pgCatalog.get(id) : null;
+            if (pg != null) {
+                items.add(pg);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        return new PGBatchResponse(items, missing);
+    }
+
+    // Public: get details (served from the in-memory catalog), with ETag / Last-Modified revalidation
     @GetMapping("/{id}")
-    public ResponseEntity<PG> getPGById(@PathVariable Long id) {
-        return ResponseEntity.ok(pgService.getPGById(id));
+    public ResponseEntity<PGRecord> getPGById(@PathVariable Long id, WebRequest request) {
+        PGRecord pg = pgCatalog.get(id);
+        if (pg == null) {
+            throw new ResourceNotFoundException("PG not found with id: " + id);
+        }
+        if (request.checkNotModified(pg.etag(), pg.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(pg);
+    }
+
+    // Public: nearest PGs by price, gender, locality, amenities and rating (in-memory kNN)
+    @GetMapping("/{id}/similar")
+    public List<SimilarPG> getSimilarPGs(
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = "6") int limit) {
+        List<SimilarPG> similar = pgSimilarity.similar(id, limit);
+        if (similar == null) {
+            throw new ResourceNotFoundException("PG not found with id: " + id);
+        }
+        return similar;
+    }
+
+    // Public: can a bed be booked for every night of [checkIn, checkOut)
+    @GetMapping("/{id}/availability")
+    public StayAvailability getAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        PGRecord pg = pgCatalog.get(id);
+        if (pg == null) {
+            throw new ResourceNotFoundException("PG not found with id: " + id);
+        }
+        Integer freeBeds = pgAvailability.freeBeds(pg, checkIn, checkOut);
+        return new StayAvailability(id, checkIn, checkOut, pg.totalBeds(), freeBeds, freeBeds == null || freeBeds > 0);
     }
 
     // Owner only: Create
@@ -59,6 +232,9 @@ public class PGController {
             @RequestParam("price") Double price,
             @RequestParam("description") String description,
             @RequestParam(value = "gender", required = false, defaultValue = "Co-ed") String gender,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude,
+            @RequestParam(value = "totalBeds", required = false) Integer totalBeds,
             @RequestParam(value = "images", required = false) java.util.List<org.springframework.web.multipart.MultipartFile> images,
             @RequestParam(value = "video", required = false) org.springframework.web.multipart.MultipartFile video
             ) {
@@ -73,6 +249,9 @@ public class PGController {
         pg.setDescription(description);
         pg.setGender(gender);
         pg.setOwnerUsername(username);
+        pg.setLatitude(latitude);
+        pg.setLongitude(longitude);
+        pg.setTotalBeds(validBeds(totalBeds));
 
         //// Handle Images
         if (images != null && !images.isEmpty()) {
@@ -98,12 +277,20 @@ public class PGController {
     // Owner only: Get My PGs
     @PreAuthorize("hasRole('OWNER')")
     @GetMapping("/my-pgs")
-    public List<PG> getMyPGs() {
+    public List<PGRecord> getMyPGs() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
         return pgService.getPGsByOwner(username);
     }
 
+    // Owner only: lightweight list of my PGs (thumbnail instead of all images)
+    @PreAuthorize("hasRole('OWNER')")
+    @GetMapping("/my-pgs/summary")
+    public List<PGListItem> getMyPGSummaries() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return pgService.getPGSummariesByOwner(auth.getName());
+    }
+
     // Owner only: Update
     // Owner only: Update
     @PreAuthorize("hasRole('OWNER')")
@@ -115,6 +302,9 @@ public class PGController {
             @RequestParam("price") Double price,
             @RequestParam("description") String description,
             @RequestParam(value = "gender", required = false) String gender,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude,
+            @RequestParam(value = "totalBeds", required = false) Integer totalBeds,
             @RequestParam(value = "images", required = false) java.util.List<org.springframework.web.multipart.MultipartFile> images,
             @RequestParam(value = "video", required = false) org.springframework.web.multipart.MultipartFile video
     ) {
@@ -125,6 +315,9 @@ public class PGController {
         pg.setPrice(price);
         pg.setDescription(description);
         if(gender != null) pg.setGender(gender);
+        pg.setLatitude(latitude);
+        pg.setLongitude(longitude);
+        pg.setTotalBeds(validBeds(totalBeds));
 
         // Handle Images
         if (images != null && !images.isEmpty()) {
@@ -147,6 +340,13 @@ public class PGController {
         return ResponseEntity.ok(pgService.updatePG(id, pg));
     }
 
+    private static Integer validBeds(Integer totalBeds) {
+        if (totalBeds != null && totalBeds < 0) {
+            throw new IllegalArgumentException("totalBeds cannot be negative");
+        }
+        return totalBeds;
+    }
+
     // Owner only: Delete
     @PreAuthorize("hasRole('OWNER')")
     @DeleteMapping("/{id}")
@@ -0,0 +1,5 @@
+package com.pgfinder.backendmain.dto;
+
+// type is "NAME" for a PG name or "LOCALITY" for an address locality
+public record AutocompleteSuggestion(String text, String type, long weight) {
+}
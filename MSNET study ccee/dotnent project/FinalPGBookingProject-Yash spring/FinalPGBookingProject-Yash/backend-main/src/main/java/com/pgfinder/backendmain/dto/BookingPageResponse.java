@@ -0,0 +1,28 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPageResponse {
+    private List<BookingSummary> items;
+    private long total;
+    private int page;
+    private int size;
+
+    public List<BookingSummary> getItems() { return items; }
+    public void setItems(List<BookingSummary> items) { this.items = items; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,33 @@
+package com.pgfinder.backendmain.dto;
+
+import com.pgfinder.backendmain.entity.Booking;
+import com.pgfinder.backendmain.entity.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Booking list row: keeps the pg.{id,name,address,price} shape the dashboards read, without
+// the PG's images/description or the donor's User row (password hash, roles)
+public record BookingSummary(Long id, String username, LocalDateTime bookingDate, LocalDate checkIn,
+                             LocalDate checkOut, BookingStatus status, Double donorContribution,
+                             String donorUsername, PGRef pg) {
+
+    public record PGRef(Long id, String name, String address, Double price) {
+    }
+
+    // Flat constructor for JPQL "SELECT new ..." projections
+    public BookingSummary(Long id, String username, LocalDateTime bookingDate, LocalDate checkIn,
+                          LocalDate checkOut, BookingStatus status, Double donorContribution, String donorUsername,
+                          Long pgId, String pgName, String pgAddress, Double pgPrice) {
+        this(id, username, bookingDate, checkIn, checkOut, status, donorContribution, donorUsername,
+                new PGRef(pgId, pgName, pgAddress, pgPrice));
+    }
+
+    public static BookingSummary from(Booking booking) {
+        return new BookingSummary(booking.getId(), booking.getUsername(), booking.getBookingDate(),
+                booking.getCheckIn(), booking.getCheckOut(), booking.getStatus(), booking.getDonorContribution(),
+                booking.getDonor() != null ? booking.getDonor().getUsername() : null,
+                booking.getPg().getId(), booking.getPg().getName(), booking.getPg().getAddress(),
+                booking.getPg().getPrice());
+    }
+}
@@ -0,0 +1,22 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PGBatchResponse {
+    private List<PGRecord> items; // in request order, duplicates removed
+    private List<Long> missing; // requested ids that do not exist
+
+    public List<PGRecord> getItems() { return items; }
+    public void setItems(List<PGRecord> items) { this.items = items; }
+    public List<Long> getMissing() { return missing; }
+    public void setMissing(List<Long> missing) { this.missing = missing; }
+}
@@ -0,0 +1,7 @@
+package com.pgfinder.backendmain.dto;
+
+import java.util.Map;
+
+// Counts per facet value for the current search filter, largest first (price in bucket order)
+public record PGFacets(long matching, Map<String, Long> gender, Map<String, Long> price, Map<String, Long> locality) {
+}
@@ -0,0 +1,76 @@
+package com.pgfinder.backendmain.dto;
+
+import com.pgfinder.backendmain.entity.PG;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Immutable, detached copy of a PG used by the in-memory catalog and read endpoints.
+// Field names match the PG entity so the JSON shape seen by clients is unchanged.
+public record PGRecord(
+        Long id,
+        String name,
+        String address,
+        Double price,
+        String description,
+        String ownerUsername,
+        List<String> imageUrls,
+        String videoUrl,
+        String gender,
+        Double latitude,
+        Double longitude,
+        Integer totalBeds,
+        Integer availableBeds,
+        double averageRating,
+        long ratingCount,
+        long version,
+        LocalDateTime updatedAt) {
+
+    public static PGRecord from(PG pg) {
+        return new PGRecord(
+                pg.getId(),
+                pg.getName(),
+                pg.getAddress(),
+                pg.getPrice(),
+                pg.getDescription(),
+                pg.getOwnerUsername(),
+                pg.getImageUrls() != null ? List.copyOf(pg.getImageUrls()) : List.of(),
+                pg.getVideoUrl(),
+                pg.getGender(),
+                pg.getLatitude(),
+                pg.getLongitude(),
+                pg.getTotalBeds(),
+                pg.getAvailableBeds(),
+                pg.getAverageRating(),
+                pg.getRatingCount(),
+                pg.getVersion(),
+                pg.getUpdatedAt());
+    }
+
+    // Strong validator for conditional GETs; changes whenever the row is updated
+    public String etag() {
+        return "\"pg-" + id + "-v" + version + "\"";
+    }
+
+    // Epoch millis of the last update, or -1 when unknown (rows written before updatedAt existed)
+    public long lastModifiedMillis() {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    // Copy with a new bed count, as left by a booking (the bed UPDATE also bumps version and updatedAt)
+    public PGRecord withBeds(Integer availableBeds, long version, LocalDateTime updatedAt) {
+        return new PGRecord(id, name, address, price, description, ownerUsername, imageUrls, videoUrl, gender,
+                latitude, longitude, totalBeds, availableBeds, averageRating, ratingCount, version, updatedAt);
+    }
+
+    // First comma-separated part of the address, e.g. "Kothrud Depot" for "Kothrud Depot, Pune, Maharashtra"
+    public String locality() {
+        if (address == null) {
+            return null;
+        }
+        int comma = address.indexOf(',');
+        String locality = (comma >= 0 ? address.substring(0, comma) : address).trim();
+        return locality.isEmpty() ? null : locality;
+    }
+}
@@ -0,0 +1,69 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PGSearchCriteria {
+    private Double minPrice;
+    private Double maxPrice;
+    private String gender;
+    private String owner;
+    private String address; // substring match
+    private String query; // free-text, ranked by PGSearchIndex
+    private String locality; // first address segment, exact match ignoring case
+    private LocalDate checkIn; // with checkOut: only PGs with a bed free every night of the stay
+    private LocalDate checkOut;
+
+    public Double getMinPrice() { return minPrice; }
+    public void setMinPrice(Double minPrice) { this.minPrice = minPrice; }
+    public Double getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(Double maxPrice) { this.maxPrice = maxPrice; }
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+    public String getLocality() { return locality; }
+    public void setLocality(String locality) { this.locality = locality; }
+    public LocalDate getCheckIn() { return checkIn; }
+    public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+    public LocalDate getCheckOut() { return checkOut; }
+    public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+
+    // Same filters as PGSpecifications, applied to catalog records on the ranked search path.
+    // Stay dates are not checked here; PGServiceImpl excludes fully booked PGs via PGAvailability
+    public boolean matches(PGRecord pg) {
+        if (gender != null && !gender.isBlank() && !gender.equals(pg.gender())) {
+            return false;
+        }
+        if (minPrice != null && (pg.price() == null || pg.price() < minPrice)) {
+            return false;
+        }
+        if (maxPrice != null && (pg.price() == null || pg.price() > maxPrice)) {
+            return false;
+        }
+        if (owner != null && !owner.isBlank() && !owner.equals(pg.ownerUsername())) {
+            return false;
+        }
+        if (address != null && !address.isBlank()
+                && (pg.address() == null || !pg.address().toLowerCase().contains(address.toLowerCase()))) {
+            return false;
+        }
+        if (locality != null && !locality.isBlank()
+                && (pg.locality() == null || !pg.locality().equalsIgnoreCase(locality.trim()))) {
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PGSearchResponse {
+    private List<PGRecord> items;
+    private long total;
+    private int page;
+    private int size;
+    private PGFacets facets;
+
+    public List<PGRecord> getItems() { return items; }
+    public void setItems(List<PGRecord> items) { this.items = items; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public PGFacets getFacets() { return facets; }
+    public void setFacets(PGFacets facets) { this.facets = facets; }
+}
@@ -0,0 +1,8 @@
+package com.pgfinder.backendmain.dto;
+
+import java.time.LocalDate;
+
+// Beds free on every night of [checkIn, checkOut); totalBeds/freeBeds are null when the PG does not track beds
+public record StayAvailability(Long pgId, LocalDate checkIn, LocalDate checkOut, Integer totalBeds, Integer freeBeds,
+                               boolean available) {
+}
@@ -0,0 +1,10 @@
+package com.pgfinder.backendmain.dto;
+
+import com.pgfinder.backendmain.entity.WaitlistStatus;
+
+import java.time.LocalDateTime;
+
+// position is 1-based and only set while the entry is WAITING; bookingId only once PROMOTED
+public record WaitlistSummary(Long id, Long pgId, String pgName, WaitlistStatus status, Integer position,
+                              LocalDateTime joinedAt, Long bookingId) {
+}
@@ -4,21 +4,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_pg_status_date", columnList = "pg_id, status, booking_date"),
+        @Index(name = "idx_bookings_status_date", columnList = "status, booking_date, id")
+})
 public class Booking {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pg_id", nullable = false)
     private PG pg;
 
@@ -28,16 +33,33 @@ public class Booking {
     @Column(nullable = false)
     private LocalDateTime bookingDate;
 
-    @Column(nullable = false)
-    private String status; // PENDING, CONFIRMED, CANCELLED
+    // Optional stay dates, checkOut exclusive; null for open-ended bookings
+    @Column
+    private LocalDate checkIn;
+
+    @Column
+    private LocalDate checkOut;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BookingStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "donor_id")
     private User donor;
 
     @Column(name = "donor_contribution")
     private Double donorContribution; // Amount paid by donor
 
+    // True while this booking holds one of the PG's beds (capacity tracked and not cancelled)
+    @ColumnDefault("false")
+    private boolean holdsBed;
+
+    // Optimistic lock: concurrent writers (e.g. two donors sponsoring the same request) conflict instead of overwriting
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     public Long getId() {
         return id;
     }
@@ -50,6 +72,18 @@ public class Booking {
     public void setPg(PG pg) {
         this.pg = pg;
     }
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
     public String getUsername() {
         return username;
     }
@@ -62,10 +96,10 @@ public class Booking {
     public void setBookingDate(LocalDateTime bookingDate) {
         this.bookingDate = bookingDate;
     }
-    public String getStatus() {
+    public BookingStatus getStatus() {
         return status;
     }
-    public void setStatus(String status) {
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
     public User getDonor() {
@@ -80,4 +114,16 @@ public class Booking {
     public void setDonorContribution(Double donorContribution) {
         this.donorContribution = donorContribution;
     }
+    public boolean isHoldsBed() {
+        return holdsBed;
+    }
+    public void setHoldsBed(boolean holdsBed) {
+        this.holdsBed = holdsBed;
+    }
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,154 @@
+package com.pgfinder.backendmain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One row per booking state change, never updated or deleted. Each event carries the booking's full
+// state after the change, so replaying a booking's latest event is enough to rebuild it.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "booking_events", indexes = {
+        @Index(name = "idx_booking_events_booking", columnList = "booking_id, id")
+})
+public class BookingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // log position: replay order, and later events supersede earlier ones
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BookingEventType type;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Booking state after the change
+    @Column(nullable = false)
+    private Long pgId;
+
+    private String ownerUsername;
+
+    @Column(nullable = false)
+    private String username;
+
+    private String donorUsername;
+
+    private Double donorContribution;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private BookingStatus status;
+
+    private LocalDateTime bookingDate;
+
+    private LocalDate checkIn;
+
+    private LocalDate checkOut;
+
+    public static BookingEvent of(BookingEventType type, Booking booking, LocalDateTime occurredAt) {
+        BookingEvent event = new BookingEvent();
+        event.setBookingId(booking.getId());
+        event.setType(type);
+        event.setOccurredAt(occurredAt);
+        event.setPgId(booking.getPg().getId());
+        event.setOwnerUsername(booking.getPg().getOwnerUsername());
+        event.setUsername(booking.getUsername());
+        event.setDonorUsername(booking.getDonor() != null ? booking.getDonor().getUsername() : null);
+        event.setDonorContribution(booking.getDonorContribution());
+        event.setStatus(booking.getStatus());
+        event.setBookingDate(booking.getBookingDate());
+        event.setCheckIn(booking.getCheckIn());
+        event.setCheckOut(booking.getCheckOut());
+        return event;
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public Long getBookingId() {
+        return bookingId;
+    }
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+    public BookingEventType getType() {
+        return type;
+    }
+    public void setType(BookingEventType type) {
+        this.type = type;
+    }
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    public Long getPgId() {
+        return pgId;
+    }
+    public void setPgId(Long pgId) {
+        this.pgId = pgId;
+    }
+    public String getOwnerUsername() {
+        return ownerUsername;
+    }
+    public void setOwnerUsername(String ownerUsername) {
+        this.ownerUsername = ownerUsername;
+    }
+    public String getUsername() {
+        return username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    public String getDonorUsername() {
+        return donorUsername;
+    }
+    public void setDonorUsername(String donorUsername) {
+        this.donorUsername = donorUsername;
+    }
+    public Double getDonorContribution() {
+        return donorContribution;
+    }
+    public void setDonorContribution(Double donorContribution) {
+        this.donorContribution = donorContribution;
+    }
+    public BookingStatus getStatus() {
+        return status;
+    }
+    public void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+    public LocalDateTime getBookingDate() {
+        return bookingDate;
+    }
+    public void setBookingDate(LocalDateTime bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+}
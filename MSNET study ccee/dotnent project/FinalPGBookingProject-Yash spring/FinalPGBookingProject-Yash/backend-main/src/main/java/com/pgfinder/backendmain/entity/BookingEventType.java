@@ -0,0 +1,9 @@
+package com.pgfinder.backendmain.entity;
+
+public enum BookingEventType {
+    IMPORTED,       // booking that existed before the event log; written once at startup
+    CREATED,
+    SPONSORED,
+    STATUS_CHANGED,
+    DELETED
+}
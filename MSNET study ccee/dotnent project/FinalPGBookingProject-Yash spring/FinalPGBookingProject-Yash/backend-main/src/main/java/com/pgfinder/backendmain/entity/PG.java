@@ -4,12 +4,21 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "pgs")
+@Table(name = "pgs", indexes = {
+        @Index(name = "idx_pgs_price_id", columnList = "price, id"),
+        @Index(name = "idx_pgs_gender_price", columnList = "gender, price"),
+        @Index(name = "idx_pgs_owner", columnList = "owner_username")
+})
 public class PG {
 
     @Id
@@ -31,8 +40,12 @@ public class PG {
     @Column(nullable = false)
     private String ownerUsername;
 
+    // SUBSELECT: a list query loads the images of all returned PGs in one extra query instead of one per PG.
+    // position keeps upload order; the first image is the list thumbnail
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "pg_images", joinColumns = @JoinColumn(name = "pg_id"))
+    @OrderColumn(name = "position")
     @Column(name = "image_url")
     private java.util.List<String> imageUrls;
 
@@ -42,6 +55,56 @@ public class PG {
     @Column
     private String gender; // Values: "Boys", "Girls", "Co-ed"
 
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    // Review aggregates, maintained by PGRepository.addRating and repaired by RatingReconciler
+    @ColumnDefault("0")
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    private long rating1;
+
+    @ColumnDefault("0")
+    private long rating2;
+
+    @ColumnDefault("0")
+    private long rating3;
+
+    @ColumnDefault("0")
+    private long rating4;
+
+    @ColumnDefault("0")
+    private long rating5;
+
+    // Bed inventory. A null totalBeds means capacity is not tracked and bookings are unlimited.
+    // availableBeds only changes through PGRepository.reserveBed/releaseBeds and owner edits
+    @Column
+    private Integer totalBeds;
+
+    @Column
+    private Integer availableBeds;
+
+    // Bumped by Hibernate on every update; used for ETags
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
@@ -60,4 +123,31 @@ public class PG {
     public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
     public String getGender() { return gender; }
     public void setGender(String gender) { this.gender = gender; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+    public long getRating1() { return rating1; }
+    public void setRating1(long rating1) { this.rating1 = rating1; }
+    public long getRating2() { return rating2; }
+    public void setRating2(long rating2) { this.rating2 = rating2; }
+    public long getRating3() { return rating3; }
+    public void setRating3(long rating3) { this.rating3 = rating3; }
+    public long getRating4() { return rating4; }
+    public void setRating4(long rating4) { this.rating4 = rating4; }
+    public long getRating5() { return rating5; }
+    public void setRating5(long rating5) { this.rating5 = rating5; }
+    public Integer getTotalBeds() { return totalBeds; }
+    public void setTotalBeds(Integer totalBeds) { this.totalBeds = totalBeds; }
+    public Integer getAvailableBeds() { return availableBeds; }
+    public void setAvailableBeds(Integer availableBeds) { this.availableBeds = availableBeds; }
+    public double getAverageRating() { return ratingCount > 0 ? (double) ratingSum / ratingCount : 0; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
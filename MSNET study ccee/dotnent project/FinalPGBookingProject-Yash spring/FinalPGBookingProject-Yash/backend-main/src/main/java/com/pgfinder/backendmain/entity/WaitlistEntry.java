@@ -0,0 +1,97 @@
+package com.pgfinder.backendmain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+// A user waiting for a bed at a full PG. Queue order is the id order of WAITING rows per PG.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_pg_status", columnList = "pg_id, status, id"),
+        @Index(name = "idx_waitlist_user_status", columnList = "username, status")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pg_id", nullable = false)
+    private PG pg;
+
+    @Column(nullable = false)
+    private String username;
+
+    // The booking made on promotion requests aid, as if the user had booked with requestAid=true
+    @ColumnDefault("false")
+    private boolean requestAid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime joinedAt;
+
+    private LocalDateTime promotedAt;
+
+    @Column(name = "booking_id")
+    private Long bookingId; // set on promotion; not a foreign key, the booking may be deleted later
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public PG getPg() {
+        return pg;
+    }
+    public void setPg(PG pg) {
+        this.pg = pg;
+    }
+    public String getUsername() {
+        return username;
+    }
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    public boolean isRequestAid() {
+        return requestAid;
+    }
+    public void setRequestAid(boolean requestAid) {
+        this.requestAid = requestAid;
+    }
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+    public LocalDateTime getPromotedAt() {
+        return promotedAt;
+    }
+    public void setPromotedAt(LocalDateTime promotedAt) {
+        this.promotedAt = promotedAt;
+    }
+    public Long getBookingId() {
+        return bookingId;
+    }
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pgfinder.backendmain.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED, // a freed bed was handed over; bookingId points at the booking created for it
+    LEFT      // the user withdrew
+}
@@ -0,0 +1,19 @@
+package com.pgfinder.backendmain.event;
+
+// Published by BookingServiceImpl after a booking row has been inserted
+public class BookingCreatedEvent {
+
+    private final Long bookingId;
+    private final Long pgId;
+    private final String username;
+
+    public BookingCreatedEvent(Long bookingId, Long pgId, String username) {
+        this.bookingId = bookingId;
+        this.pgId = pgId;
+        this.username = username;
+    }
+
+    public Long getBookingId() { return bookingId; }
+    public Long getPgId() { return pgId; }
+    public String getUsername() { return username; }
+}
@@ -0,0 +1,18 @@
+package com.pgfinder.backendmain.event;
+
+import com.pgfinder.backendmain.entity.BookingEvent;
+
+import java.util.List;
+
+// Published by BookingEventLog for events written in the current transaction; BookingProjections
+// applies them after commit. The events are plain column values, safe to read detached.
+public class BookingEventsAppended {
+
+    private final List<BookingEvent> events;
+
+    public BookingEventsAppended(List<BookingEvent> events) {
+        this.events = List.copyOf(events);
+    }
+
+    public List<BookingEvent> getEvents() { return events; }
+}
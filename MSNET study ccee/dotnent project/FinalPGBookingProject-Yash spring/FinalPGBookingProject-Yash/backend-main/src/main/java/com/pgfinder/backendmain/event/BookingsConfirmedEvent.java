@@ -0,0 +1,20 @@
+package com.pgfinder.backendmain.event;
+
+import java.util.List;
+
+// Published by BookingServiceImpl when bookings move to CONFIRMED; BookingNotifier mails
+// the whole batch after the transaction commits. Carries detached values only.
+public class BookingsConfirmedEvent {
+
+    private final List<Confirmation> confirmations;
+
+    public BookingsConfirmedEvent(List<Confirmation> confirmations) {
+        this.confirmations = List.copyOf(confirmations);
+    }
+
+    public List<Confirmation> getConfirmations() { return confirmations; }
+
+    public record Confirmation(Long bookingId, String username, String pgName, String pgAddress, Double pgPrice,
+                               String donorUsername, Double donorContribution) {
+    }
+}
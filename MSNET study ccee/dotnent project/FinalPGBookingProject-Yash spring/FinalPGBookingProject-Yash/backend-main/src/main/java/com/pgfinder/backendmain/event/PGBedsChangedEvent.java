@@ -0,0 +1,26 @@
+package com.pgfinder.backendmain.event;
+
+import java.time.LocalDateTime;
+
+// Published by PGServiceImpl when a booking took or gave back beds and nothing else about the PG changed.
+// Only PGCatalog listens: text, facet and geo indexes do not depend on bed counts, so unlike
+// PGChangedEvent this does not re-index anything on the booking path.
+public class PGBedsChangedEvent {
+
+    private final Long pgId;
+    private final Integer availableBeds;
+    private final long version;
+    private final LocalDateTime updatedAt;
+
+    public PGBedsChangedEvent(Long pgId, Integer availableBeds, long version, LocalDateTime updatedAt) {
+        this.pgId = pgId;
+        this.availableBeds = availableBeds;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getPgId() { return pgId; }
+    public Integer getAvailableBeds() { return availableBeds; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,28 @@
+package com.pgfinder.backendmain.event;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+
+// Published by PGServiceImpl whenever a PG is created, updated or deleted.
+// Listeners use @TransactionalEventListener so they only see committed changes.
+public class PGChangedEvent {
+
+    private final Long pgId;
+    private final PGRecord pg; // null when the PG was deleted
+
+    private PGChangedEvent(Long pgId, PGRecord pg) {
+        this.pgId = pgId;
+        this.pg = pg;
+    }
+
+    public static PGChangedEvent saved(PGRecord pg) {
+        return new PGChangedEvent(pg.id(), pg);
+    }
+
+    public static PGChangedEvent deleted(Long pgId) {
+        return new PGChangedEvent(pgId, null);
+    }
+
+    public Long getPgId() { return pgId; }
+    public PGRecord getPg() { return pg; }
+    public boolean isDeleted() { return pg == null; }
+}
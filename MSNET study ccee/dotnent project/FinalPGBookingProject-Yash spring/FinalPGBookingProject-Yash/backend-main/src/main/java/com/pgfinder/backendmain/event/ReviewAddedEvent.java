@@ -0,0 +1,19 @@
+package com.pgfinder.backendmain.event;
+
+// Published by ReviewServiceImpl after a review row has been inserted
+public class ReviewAddedEvent {
+
+    private final Long reviewId;
+    private final Long pgId;
+    private final int rating;
+
+    public ReviewAddedEvent(Long reviewId, Long pgId, int rating) {
+        this.reviewId = reviewId;
+        this.pgId = pgId;
+        this.rating = rating;
+    }
+
+    public Long getReviewId() { return reviewId; }
+    public Long getPgId() { return pgId; }
+    public int getRating() { return rating; }
+}
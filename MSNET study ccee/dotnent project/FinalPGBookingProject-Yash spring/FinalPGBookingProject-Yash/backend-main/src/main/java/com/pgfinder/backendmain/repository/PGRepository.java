@@ -1,10 +1,87 @@
 package com.pgfinder.backendmain.repository;
 
 import com.pgfinder.backendmain.entity.PG;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface PGRepository extends JpaRepository<PG, Long> {
+public interface PGRepository extends JpaRepository<PG, Long>, JpaSpecificationExecutor<PG> {
     List<PG> findByOwnerUsername(String ownerUsername);
+
+    // List-view rows, one per PG, mapped to PGListItem by the service. Single query, no entities.
+    // The thumbnail is the first uploaded image (list position 0)
+    String LIST_ROW_SELECT = "SELECT p.id, p.name, p.address, p.price, p.gender, "
+            + "(SELECT i FROM PG p2 JOIN p2.imageUrls i WHERE p2.id = p.id AND INDEX(i) = 0), p.ratingSum, p.ratingCount FROM PG p ";
+
+    @Query(LIST_ROW_SELECT + "ORDER BY p.id")
+    List<Object[]> findListRows();
+
+    @Query(LIST_ROW_SELECT + "WHERE p.ownerUsername = :owner ORDER BY p.id")
+    List<Object[]> findListRowsByOwner(@Param("owner") String ownerUsername);
+
+    // Atomic in-place increment of the review aggregates; also bumps the version so ETags change
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PG p SET p.ratingSum = p.ratingSum + :rating, p.ratingCount = p.ratingCount + 1, "
+            + "p.rating1 = p.rating1 + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, "
+            + "p.rating2 = p.rating2 + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, "
+            + "p.rating3 = p.rating3 + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, "
+            + "p.rating4 = p.rating4 + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, "
+            + "p.rating5 = p.rating5 + CASE WHEN :rating = 5 THEN 1 ELSE 0 END, "
+            + "p.version = p.version + 1, p.updatedAt = :now WHERE p.id = :pgId")
+    int addRating(@Param("pgId") Long pgId, @Param("rating") int rating, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PG p SET p.ratingSum = :sum, p.ratingCount = :count, p.rating1 = :r1, p.rating2 = :r2, "
+            + "p.rating3 = :r3, p.rating4 = :r4, p.rating5 = :r5, p.version = p.version + 1, "
+            + "p.updatedAt = :now WHERE p.id = :pgId")
+    int setRatings(@Param("pgId") Long pgId, @Param("sum") long sum, @Param("count") long count,
+                   @Param("r1") long r1, @Param("r2") long r2, @Param("r3") long r3,
+                   @Param("r4") long r4, @Param("r5") long r5, @Param("now") LocalDateTime now);
+
+    // Rows of [ownerUsername, availableBeds, version, updatedAt]: what a bed UPDATE changed, without loading the PG
+    @Query("SELECT p.ownerUsername, p.availableBeds, p.version, p.updatedAt FROM PG p WHERE p.id = :pgId")
+    List<Object[]> findBedState(@Param("pgId") Long pgId);
+
+    // Takes one bed in a single conditional UPDATE: the row lock serializes concurrent bookers and
+    // the WHERE clause turns it into a no-op once the PG is full, so it can never go below zero.
+    // Flushes first because the context is cleared afterwards
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PG p SET p.availableBeds = p.availableBeds - 1, p.version = p.version + 1, p.updatedAt = :now "
+            + "WHERE p.id = :pgId AND p.availableBeds > 0")
+    int reserveBed(@Param("pgId") Long pgId, @Param("now") LocalDateTime now);
+
+    // Gives back count beds, capped at totalBeds
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PG p SET p.availableBeds = CASE WHEN p.availableBeds + :count > p.totalBeds THEN p.totalBeds "
+            + "ELSE p.availableBeds + :count END, p.version = p.version + 1, p.updatedAt = :now "
+            + "WHERE p.id = :pgId AND p.availableBeds < p.totalBeds")
+    int releaseBeds(@Param("pgId") Long pgId, @Param("count") int count, @Param("now") LocalDateTime now);
+
+    // Stored aggregates of every PG: id, rating1..rating5, ratingSum, ratingCount
+    @Query("SELECT p.id, p.rating1, p.rating2, p.rating3, p.rating4, p.rating5, p.ratingSum, p.ratingCount FROM PG p")
+    List<Object[]> findRatingAggregates();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PG p WHERE p.id = :pgId")
+    Optional<PG> findByIdForUpdate(@Param("pgId") Long pgId);
+
+    // Keyset pagination: each page seeks past the last row of the previous one instead of using OFFSET.
+    // Callers pass PageRequest.of(0, limit) so only a LIMIT is applied.
+    @Query("SELECT p FROM PG p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<PG> findPageById(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p FROM PG p WHERE p.id < :beforeId ORDER BY p.id DESC")
+    List<PG> findPageByNewest(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT p FROM PG p WHERE p.price > :price OR (p.price = :price AND p.id > :afterId) ORDER BY p.price ASC, p.id ASC")
+    List<PG> findPageByPrice(@Param("price") Double price, @Param("afterId") Long afterId, Pageable pageable);
 }
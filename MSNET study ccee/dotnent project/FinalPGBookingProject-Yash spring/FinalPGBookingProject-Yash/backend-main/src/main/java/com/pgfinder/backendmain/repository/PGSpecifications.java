@@ -0,0 +1,77 @@
+package com.pgfinder.backendmain.repository;
+
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.entity.PG;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+// Composable filters for PG search; each one is only added when its criterion is present
+public final class PGSpecifications {
+
+    private PGSpecifications() {
+    }
+
+    public static Specification<PG> matching(PGSearchCriteria criteria) {
+        Specification<PG> spec = (root, query, cb) -> cb.conjunction();
+        if (criteria.getGender() != null && !criteria.getGender().isBlank()) {
+            spec = spec.and(hasGender(criteria.getGender()));
+        }
+        if (criteria.getMinPrice() != null) {
+            spec = spec.and(priceAtLeast(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            spec = spec.and(priceAtMost(criteria.getMaxPrice()));
+        }
+        if (criteria.getOwner() != null && !criteria.getOwner().isBlank()) {
+            spec = spec.and(ownedBy(criteria.getOwner()));
+        }
+        if (criteria.getAddress() != null && !criteria.getAddress().isBlank()) {
+            spec = spec.and(addressContains(criteria.getAddress()));
+        }
+        if (criteria.getLocality() != null && !criteria.getLocality().isBlank()) {
+            spec = spec.and(inLocality(criteria.getLocality()));
+        }
+        return spec;
+    }
+
+    public static Specification<PG> hasGender(String gender) {
+        return (root, query, cb) -> cb.equal(root.get("gender"), gender);
+    }
+
+    public static Specification<PG> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<PG> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<PG> ownedBy(String ownerUsername) {
+        return (root, query, cb) -> cb.equal(root.get("ownerUsername"), ownerUsername);
+    }
+
+    public static Specification<PG> addressContains(String text) {
+        String pattern = "%" + escapeLike(text.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("address")), pattern, '\\');
+    }
+
+    public static Specification<PG> idNotIn(Collection<Long> ids) {
+        return (root, query, cb) -> cb.not(root.get("id").in(ids));
+    }
+
+    // Locality is the first comma-separated segment of the address (see PGRecord.locality)
+    public static Specification<PG> inLocality(String locality) {
+        String value = locality.trim().toLowerCase();
+        String pattern = escapeLike(value) + ",%";
+        return (root, query, cb) -> cb.or(
+                cb.equal(cb.trim(cb.lower(root.get("address"))), value),
+                cb.like(cb.lower(root.get("address")), pattern, '\\'));
+    }
+
+    public static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,69 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.entity.User;
+import com.pgfinder.backendmain.event.BookingsConfirmedEvent;
+import com.pgfinder.backendmain.repository.UserRepository;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Sends booking confirmation emails off the request thread, only once the status change has committed.
+// A batch of confirmations costs one user lookup query; a failed send does not affect the others.
+@Service
+public class BookingNotifier {
+
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+
+    public BookingNotifier(UserRepository userRepository, EmailService emailService) {
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onBookingsConfirmed(BookingsConfirmedEvent event) {
+        Set<String> usernames = new HashSet<>();
+        for (BookingsConfirmedEvent.Confirmation confirmation : event.getConfirmations()) {
+            usernames.add(confirmation.username());
+        }
+        Map<String, String> emails = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            emails.put(user.getUsername(), user.getEmail());
+        }
+
+        for (BookingsConfirmedEvent.Confirmation confirmation : event.getConfirmations()) {
+            String email = emails.get(confirmation.username());
+            if (email == null) {
+                System.err.println("Error sending confirmation email: User not found: " + confirmation.username());
+                continue;
+            }
+            try {
+                emailService.sendSimpleMessage(email, "Booking Confirmed - " + confirmation.pgName(), message(confirmation));
+            } catch (Exception e) {
+                System.err.println("Error sending confirmation email for booking " + confirmation.bookingId() + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private static String message(BookingsConfirmedEvent.Confirmation confirmation) {
+        String contributionText = "";
+        if (confirmation.donorUsername() != null) {
+            contributionText = "\nSponsorship Applied: " + confirmation.donorUsername() +
+                    " contributed " + confirmation.donorContribution() + "\n" +
+                    "Net Amount Paid: " + (confirmation.pgPrice() - confirmation.donorContribution());
+        }
+        return "Dear " + confirmation.username() + ",\n\n" +
+                "Your booking for '" + confirmation.pgName() + "' has been successfully confirmed.\n" +
+                "Total Rent: " + confirmation.pgPrice() +
+                contributionText + "\n" +
+                "Address: " + confirmation.pgAddress() + "\n\n" +
+                "Thank you for using Area Stay Point!";
+    }
+}
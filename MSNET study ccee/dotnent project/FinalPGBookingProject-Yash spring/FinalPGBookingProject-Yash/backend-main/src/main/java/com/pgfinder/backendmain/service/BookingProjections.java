@@ -0,0 +1,171 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.BookingSummary;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.entity.BookingEvent;
+import com.pgfinder.backendmain.entity.BookingEventType;
+import com.pgfinder.backendmain.entity.BookingStatus;
+import com.pgfinder.backendmain.event.BookingEventsAppended;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Read models for the booking dashboards, built from the booking event log: the latest state of every
+// booking plus per-user, per-owner and per-donor indexes and per-status counters. Rebuilt by replaying
+// the log at startup, then updated incrementally as events commit. PG name/address/price are taken
+// from PGCatalog at read time, so PG edits need no booking events.
+@Service
+public class BookingProjections {
+
+    // Newest booking first, like the dashboards have always listed them
+    public static final Comparator<BookingSummary> NEWEST_FIRST =
+            Comparator.comparing(BookingSummary::bookingDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(BookingSummary::id, Comparator.reverseOrder());
+
+    private final BookingEventLog bookingEventLog;
+    private final PGCatalog pgCatalog;
+
+    // Guarded by this
+    private final Map<Long, BookingEvent> latest = new HashMap<>();
+    private final Set<Long> deleted = new HashSet<>(); // so a late, older event cannot bring a booking back
+    private final Map<String, Set<Long>> byUser = new HashMap<>();
+    private final Map<String, Set<Long>> byOwner = new HashMap<>();
+    private final Map<String, Set<Long>> byDonor = new HashMap<>();
+    private final Map<BookingStatus, Long> statusCounts = new EnumMap<>(BookingStatus.class);
+
+    public BookingProjections(BookingEventLog bookingEventLog, PGCatalog pgCatalog) {
+        this.bookingEventLog = bookingEventLog;
+        this.pgCatalog = pgCatalog;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        int imported = bookingEventLog.backfill();
+        long replayed = bookingEventLog.replay(this::apply);
+        System.out.println("Booking projections rebuilt from " + replayed + " events ("
+                + imported + " imported), " + latest.size() + " bookings.");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventsAppended(BookingEventsAppended event) {
+        for (BookingEvent bookingEvent : event.getEvents()) {
+            apply(bookingEvent);
+        }
+    }
+
+    public List<BookingSummary> byUser(String username) {
+        return summaries(byUser, username, null);
+    }
+
+    public List<BookingSummary> byDonor(String donorUsername) {
+        return summaries(byDonor, donorUsername, null);
+    }
+
+    // status is optional (null = any)
+    public List<BookingSummary> byOwner(String ownerUsername, BookingStatus status) {
+        return summaries(byOwner, ownerUsername, status);
+    }
+
+    public synchronized long totalBookings() {
+        return latest.size();
+    }
+
+    public synchronized long usersWithBookings() {
+        return byUser.size();
+    }
+
+    public synchronized Map<String, Long> countsByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            counts.put(status.name(), statusCounts.getOrDefault(status, 0L));
+        }
+        return counts;
+    }
+
+    // Events carry full state, so each one replaces the booking's previous view
+    private void apply(BookingEvent event) {
+        Long bookingId = event.getBookingId();
+        BookingEvent previous = latest.get(bookingId);
+        if (deleted.contains(bookingId) || (previous != null && previous.getId() >= event.getId())) {
+            return;
+        }
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (event.getType() == BookingEventType.DELETED) {
+            latest.remove(bookingId);
+            deleted.add(bookingId);
+            return;
+        }
+        latest.put(bookingId, event);
+        index(event);
+    }
+
+    private void index(BookingEvent event) {
+        add(byUser, event.getUsername(), event.getBookingId());
+        add(byOwner, event.getOwnerUsername(), event.getBookingId());
+        add(byDonor, event.getDonorUsername(), event.getBookingId());
+        if (event.getStatus() != null) {
+            statusCounts.merge(event.getStatus(), 1L, Long::sum);
+        }
+    }
+
+    private void unindex(BookingEvent event) {
+        remove(byUser, event.getUsername(), event.getBookingId());
+        remove(byOwner, event.getOwnerUsername(), event.getBookingId());
+        remove(byDonor, event.getDonorUsername(), event.getBookingId());
+        if (event.getStatus() != null) {
+            statusCounts.merge(event.getStatus(), -1L, Long::sum);
+        }
+    }
+
+    private static void add(Map<String, Set<Long>> index, String key, Long bookingId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(bookingId);
+        }
+    }
+
+    private static void remove(Map<String, Set<Long>> index, String key, Long bookingId) {
+        if (key == null) {
+            return;
+        }
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(bookingId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private List<BookingSummary> summaries(Map<String, Set<Long>> index, String key, BookingStatus status) {
+        List<BookingEvent> events = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : index.getOrDefault(key, Set.of())) {
+                BookingEvent event = latest.get(id);
+                if (status == null || event.getStatus() == status) {
+                    events.add(event);
+                }
+            }
+        }
+        List<BookingSummary> result = new ArrayList<>(events.size());
+        for (BookingEvent event : events) {
+            PGRecord pg = pgCatalog.get(event.getPgId());
+            if (pg == null) {
+                continue; // PG deleted; its bookings' DELETED events are on their way
+            }
+            result.add(new BookingSummary(event.getBookingId(), event.getUsername(), event.getBookingDate(),
+                    event.getCheckIn(), event.getCheckOut(), event.getStatus(), event.getDonorContribution(),
+                    event.getDonorUsername(), pg.id(), pg.name(), pg.address(), pg.price()));
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+}
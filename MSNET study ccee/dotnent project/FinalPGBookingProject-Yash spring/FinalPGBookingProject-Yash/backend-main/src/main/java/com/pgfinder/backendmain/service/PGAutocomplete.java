@@ -0,0 +1,299 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.AutocompleteSuggestion;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.event.BookingCreatedEvent;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Prefix trie over PG names and address localities for search-box autocomplete.
+// Every node caches its top-K suggestions (by listings + bookings), so a lookup is
+// just a walk down the prefix. Writes refresh only the nodes on the changed paths.
+// New bookings are counted as they commit; cancellations and deletions are picked up by a
+// periodic recount, which also corrects any other drift.
+@Service
+public class PGAutocomplete {
+
+    public static final String TYPE_NAME = "NAME";
+    public static final String TYPE_LOCALITY = "LOCALITY";
+
+    private static final int TOP_K = 10;
+
+    private static final Comparator<AutocompleteSuggestion> BY_WEIGHT =
+            Comparator.comparingLong(AutocompleteSuggestion::weight).reversed()
+                    .thenComparing(AutocompleteSuggestion::text);
+
+    private final PGCatalog pgCatalog;
+    private final BookingRepository bookingRepository;
+
+    private final Node root = new Node();
+
+    // Writer-side state, guarded by this
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, PGRecord> indexedPGs = new HashMap<>();
+    private final Map<Long, Long> bookingCounts = new HashMap<>();
+    // PGs whose count changed while a recount was reading the table; null when no recount is running
+    private Set<Long> touchedDuringRecount;
+
+    public PGAutocomplete(PGCatalog pgCatalog, BookingRepository bookingRepository) {
+        this.pgCatalog = pgCatalog;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        for (Object[] row : bookingRepository.countBookingsByPg()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
+        for (PGRecord pg : pgCatalog.all()) {
+            addPG(pg);
+        }
+    }
+
+    public List<AutocompleteSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<AutocompleteSuggestion> top = node.top;
+        int max = Math.max(1, Math.min(limit, TOP_K));
+        return top.size() <= max ? top : top.subList(0, max);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPGChanged(PGChangedEvent event) {
+        PGRecord indexed = indexedPGs.get(event.getPgId());
+        if (!event.isDeleted() && indexed != null && indexed.version() > event.getPg().version()) {
+            return; // older than what is indexed: its commit's event arrived late
+        }
+        PGRecord old = indexedPGs.remove(event.getPgId());
+        if (old != null) {
+            long bookings = bookingCounts.getOrDefault(old.id(), 0L);
+            adjust(old.name(), TYPE_NAME, -1, -bookings);
+            adjust(old.locality(), TYPE_LOCALITY, -1, -bookings);
+        }
+        if (event.isDeleted()) {
+            bookingCounts.remove(event.getPgId());
+            touched(event.getPgId());
+        } else {
+            addPG(event.getPg());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingCreated(BookingCreatedEvent event) {
+        bookingCounts.merge(event.getPgId(), 1L, Long::sum);
+        touched(event.getPgId());
+        PGRecord pg = indexedPGs.get(event.getPgId());
+        if (pg != null) {
+            adjust(pg.name(), TYPE_NAME, 0, 1);
+            adjust(pg.locality(), TYPE_LOCALITY, 0, 1);
+        }
+    }
+
+    // Replaces the booking counts with the table's (one grouped query) and re-weights only the PGs that changed.
+    // The query runs without the lock, so PGs that saw events meanwhile keep their live count until the next run.
+    @Scheduled(initialDelayString = "${app.autocomplete.recount-interval-ms:600000}",
+            fixedDelayString = "${app.autocomplete.recount-interval-ms:600000}")
+    public void recountBookings() {
+        synchronized (this) {
+            touchedDuringRecount = new HashSet<>();
+        }
+        Map<Long, Long> actual = new HashMap<>();
+        for (Object[] row : bookingRepository.countBookingsByPg()) {
+            actual.put((Long) row[0], (Long) row[1]);
+        }
+        int changed = 0;
+        synchronized (this) {
+            Set<Long> touched = touchedDuringRecount;
+            touchedDuringRecount = null;
+            for (PGRecord pg : indexedPGs.values()) {
+                if (touched.contains(pg.id())) {
+                    continue;
+                }
+                long delta = actual.getOrDefault(pg.id(), 0L) - bookingCounts.getOrDefault(pg.id(), 0L);
+                if (delta != 0) {
+                    adjust(pg.name(), TYPE_NAME, 0, delta);
+                    adjust(pg.locality(), TYPE_LOCALITY, 0, delta);
+                    changed++;
+                }
+            }
+            bookingCounts.keySet().removeIf(id -> !touched.contains(id) && !actual.containsKey(id));
+            actual.forEach((id, count) -> {
+                if (!touched.contains(id)) {
+                    bookingCounts.put(id, count);
+                }
+            });
+        }
+        if (changed > 0) {
+            System.out.println("Autocomplete booking counts corrected for " + changed + " PGs.");
+        }
+    }
+
+    private void touched(Long pgId) {
+        if (touchedDuringRecount != null) {
+            touchedDuringRecount.add(pgId);
+        }
+    }
+
+    private void addPG(PGRecord pg) {
+        indexedPGs.put(pg.id(), pg);
+        long bookings = bookingCounts.getOrDefault(pg.id(), 0L);
+        adjust(pg.name(), TYPE_NAME, 1, bookings);
+        adjust(pg.locality(), TYPE_LOCALITY, 1, bookings);
+    }
+
+    private void adjust(String text, String type, long listingDelta, long bookingDelta) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String key = type + ":" + normalized;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (listingDelta <= 0) {
+                return;
+            }
+            entry = new Entry(text.trim(), type);
+            entries.put(key, entry);
+            for (String path : paths(normalized)) {
+                endOf(path, true).terminals.add(entry);
+            }
+        }
+        entry.listings += listingDelta;
+        entry.bookings += bookingDelta;
+
+        if (entry.listings <= 0) {
+            entries.remove(key);
+            for (String path : paths(normalized)) {
+                Node end = endOf(path, false);
+                if (end != null) {
+                    end.terminals.remove(entry);
+                }
+            }
+        }
+        for (String path : paths(normalized)) {
+            refresh(path);
+        }
+    }
+
+    // Recomputes top-K bottom-up along one path; nodes off the path are unaffected
+    private void refresh(String path) {
+        List<Node> nodes = new ArrayList<>(path.length() + 1);
+        Node node = root;
+        nodes.add(node);
+        for (int i = 0; i < path.length(); i++) {
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+            nodes.add(node);
+        }
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node current = nodes.get(i);
+            recompute(current);
+            if (i > 0 && current.terminals.isEmpty() && current.children.isEmpty()) {
+                nodes.get(i - 1).children.remove(path.charAt(i - 1));
+            }
+        }
+    }
+
+    private void recompute(Node node) {
+        List<AutocompleteSuggestion> candidates = new ArrayList<>();
+        for (Entry entry : node.terminals) {
+            candidates.add(entry.toSuggestion());
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_WEIGHT);
+
+        List<AutocompleteSuggestion> top = new ArrayList<>(TOP_K);
+        Set<String> seen = new HashSet<>();
+        for (AutocompleteSuggestion candidate : candidates) {
+            if (top.size() == TOP_K) {
+                break;
+            }
+            // A suggestion can be reachable through several word suffixes below this node
+            if (seen.add(candidate.type() + ":" + normalize(candidate.text()))) {
+                top.add(candidate);
+            }
+        }
+        node.top = List.copyOf(top);
+    }
+
+    private Node endOf(String path, boolean create) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            Node child = node.children.get(path.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node();
+                node.children.put(path.charAt(i), child);
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    // "viman nagar" is reachable as both "viman nagar" and "nagar"
+    private static List<String> paths(String normalized) {
+        List<String> paths = new ArrayList<>();
+        paths.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            paths.add(normalized.substring(i + 1));
+        }
+        return paths;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final Set<Entry> terminals = new HashSet<>();
+        private volatile List<AutocompleteSuggestion> top = List.of();
+    }
+
+    private static final class Entry {
+        private final String display;
+        private final String type;
+        private long listings;
+        private long bookings;
+
+        private Entry(String display, String type) {
+            this.display = display;
+            this.type = type;
+        }
+
+        private AutocompleteSuggestion toSuggestion() {
+            return new AutocompleteSuggestion(display, type, listings + bookings);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-PG occupancy calendar: a segment tree over days (range add, range max), so "is a bed free
+// for every night of [from, to)" and conflict checks are O(log days). Occupancy comes from dated
+// stays [checkIn, checkOut) and from open-ended bookings holding a bed, which occupy from their
+// booking date to the end of the calendar. Holds are applied under the PG row lock and undone if
+// the transaction rolls back; releases apply after commit, so readers only ever over-count.
+// The calendar is a rolling window starting today: each tree moves itself forward when first
+// touched on a new day, and a nightly sweep rolls idle trees and drops the empty ones, so only PGs
+// with current occupancy cost memory (about 8KB each).
+@Service
+public class PGAvailability {
+
+    // Days covered from today; stays must end inside this window
+    private static final int DAYS = 366;
+
+    // End day of an open-ended hold
+    private static final long OPEN = Long.MAX_VALUE;
+
+    private final PGCatalog pgCatalog;
+    private final BookingRepository bookingRepository;
+
+    // Mutated only inside compute() for the PG's key, which serializes writers per PG
+    private final Map<Long, DayTree> trees = new ConcurrentHashMap<>();
+
+    // PGs at capacity on some day of the window: the only ones unavailable() has to look at
+    private final Set<Long> saturated = ConcurrentHashMap.newKeySet();
+
+    public PGAvailability(PGCatalog pgCatalog, BookingRepository bookingRepository) {
+        this.pgCatalog = pgCatalog;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Object[] row : bookingRepository.findActiveStays()) {
+            Long pgId = (Long) row[0];
+            LocalDate checkIn = (LocalDate) row[1];
+            LocalDate checkOut = (LocalDate) row[2];
+            LocalDateTime bookingDate = (LocalDateTime) row[3];
+            if (checkIn != null) {
+                add(pgId, checkIn, checkOut, 1);
+            } else {
+                add(pgId, bookingDate.toLocalDate(), null, 1);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            trees.remove(event.getPgId());
+            saturated.remove(event.getPgId());
+        } else {
+            // Capacity may have changed; taken from the event, since the catalog may not have applied it yet
+            trees.compute(event.getPgId(), (id, tree) -> {
+                updateSaturation(id, tree, event.getPg().totalBeds());
+                return tree;
+            });
+        }
+    }
+
+    @Scheduled(cron = "${app.availability.rebase-cron:0 5 0 * * *}")
+    public void rebase() {
+        long today = today();
+        int dropped = 0;
+        for (Long pgId : trees.keySet()) {
+            DayTree tree = trees.computeIfPresent(pgId, (id, t) -> {
+                t.roll(today);
+                if (t.isEmpty()) {
+                    saturated.remove(id);
+                    return null;
+                }
+                updateSaturation(id, t);
+                return t;
+            });
+            if (tree == null) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            System.out.println("Availability calendar dropped " + dropped + " empty PG calendars.");
+        }
+    }
+
+    // Takes a bed for [from, to) (to == null: open-ended) unless some night is already at capacity.
+    // A null capacity means beds are not tracked: the stay is recorded but never refused.
+    // Callers hold the PG row lock, which serializes holds on the same PG across requests.
+    public boolean hold(Long pgId, Integer capacity, LocalDate from, LocalDate to) {
+        validate(from, to);
+        boolean[] taken = new boolean[1];
+        trees.compute(pgId, (id, tree) -> { // check and add as one step
+            DayTree t = tree != null ? tree : new DayTree(today());
+            if (capacity == null || t.max(from.toEpochDay(), end(to)) < capacity) {
+                t.add(from.toEpochDay(), end(to), 1);
+                taken[0] = true;
+            }
+            updateSaturation(id, t);
+            return t;
+        });
+        if (!taken[0]) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        add(pgId, from, to, -1);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Gives back a stay taken by hold; inside a transaction this takes effect after commit
+    public void release(Long pgId, LocalDate from, LocalDate to) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(pgId, from, to, -1);
+                }
+            });
+        } else {
+            add(pgId, from, to, -1);
+        }
+    }
+
+    // Beds free on every night of [from, to), or null when the PG does not track beds
+    public Integer freeBeds(PGRecord pg, LocalDate from, LocalDate to) {
+        validate(from, to);
+        if (pg.totalBeds() == null) {
+            return null;
+        }
+        DayTree tree = trees.get(pg.id());
+        int occupied = tree == null ? 0 : tree.max(from.toEpochDay(), to.toEpochDay());
+        return Math.max(0, pg.totalBeds() - occupied);
+    }
+
+    // PGs with no bed free for the whole of [from, to); only PGs full on some day of the window are visited
+    public Set<Long> unavailable(LocalDate from, LocalDate to) {
+        validate(from, to);
+        Set<Long> full = new HashSet<>();
+        for (Long pgId : saturated) {
+            DayTree tree = trees.get(pgId);
+            PGRecord pg = pgCatalog.get(pgId);
+            if (tree != null && pg != null && pg.totalBeds() != null
+                    && tree.max(from.toEpochDay(), to.toEpochDay()) >= pg.totalBeds()) {
+                full.add(pgId);
+            }
+        }
+        return full;
+    }
+
+    public void validate(LocalDate from, LocalDate to) {
+        if (from == null) {
+            throw new IllegalArgumentException("Check-in date is required");
+        }
+        if (to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        LocalDate lastDay = LocalDate.now().plusDays(DAYS);
+        if (to != null && to.isAfter(lastDay)) {
+            throw new IllegalArgumentException("Stays can only be booked until " + lastDay);
+        }
+    }
+
+    private void add(Long pgId, LocalDate from, LocalDate to, int delta) {
+        trees.compute(pgId, (id, tree) -> {
+            DayTree t = tree != null ? tree : new DayTree(today());
+            t.add(from.toEpochDay(), end(to), delta);
+            updateSaturation(id, t);
+            return t;
+        });
+    }
+
+    // Called inside compute() for the PG, so it cannot interleave with another update of the same tree
+    private void updateSaturation(Long pgId, DayTree tree) {
+        PGRecord pg = pgCatalog.get(pgId);
+        updateSaturation(pgId, tree, pg != null ? pg.totalBeds() : null);
+    }
+
+    private void updateSaturation(Long pgId, DayTree tree, Integer capacity) {
+        if (tree != null && capacity != null && tree.peak() >= capacity) {
+            saturated.add(pgId);
+        } else {
+            saturated.remove(pgId);
+        }
+    }
+
+    private static long end(LocalDate to) {
+        return to != null ? to.toEpochDay() : OPEN;
+    }
+
+    private static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    // Segment tree over the DAYS days starting at firstDay. add[node] applies to the node's whole range
+    // and is never pushed down; max[node] already includes it, so queries do not modify the tree.
+    private static final class DayTree {
+        private static final int NONE = Integer.MIN_VALUE;
+        private static final int SIZE = Integer.highestOneBit(DAYS - 1) << 2; // 2 * next power of two
+
+        private final int[] max = new int[SIZE];
+        private final int[] add = new int[SIZE];
+        private long firstDay; // epoch day of index 0
+        private int openEnded; // open-ended holds; they also cover the days that roll into the window
+
+        DayTree(long firstDay) {
+            this.firstDay = firstDay;
+        }
+
+        // Adds delta to every day in [fromDay, toDay); toDay == OPEN runs to the end of the window
+        synchronized void add(long fromDay, long toDay, int delta) {
+            roll(today());
+            if (toDay == OPEN) {
+                openEnded += delta;
+            }
+            int from = index(fromDay);
+            int to = index(toDay);
+            if (from < to) {
+                update(1, 0, DAYS - 1, from, to - 1, delta);
+            }
+        }
+
+        // Highest occupancy of any day in [fromDay, toDay)
+        synchronized int max(long fromDay, long toDay) {
+            roll(today());
+            int from = index(fromDay);
+            int to = index(toDay);
+            if (from >= to) {
+                return 0;
+            }
+            int result = query(1, 0, DAYS - 1, from, to - 1);
+            return result == NONE ? 0 : result;
+        }
+
+        // Highest occupancy of any day in the window
+        synchronized int peak() {
+            roll(today());
+            return Math.max(0, max[1]);
+        }
+
+        synchronized boolean isEmpty() {
+            return openEnded == 0 && max[1] <= 0;
+        }
+
+        // Moves the window to start at day: past days fall off, and the days entering at the end are
+        // occupied by the open-ended holds only (dated stays cannot reach past the old window)
+        synchronized void roll(long day) {
+            long shift = day - firstDay;
+            if (shift <= 0) {
+                return;
+            }
+            int[] days = new int[DAYS];
+            int kept = 0;
+            if (shift < DAYS) {
+                int[] old = new int[DAYS];
+                collect(1, 0, DAYS - 1, 0, old);
+                kept = DAYS - (int) shift;
+                System.arraycopy(old, (int) shift, days, 0, kept);
+            }
+            Arrays.fill(days, kept, DAYS, openEnded);
+            Arrays.fill(add, 0);
+            build(1, 0, DAYS - 1, days);
+            firstDay = day;
+        }
+
+        // Days before the window (past stays, old open-ended bookings) are clamped to index 0
+        private int index(long day) {
+            return (int) Math.max(0, Math.min(DAYS, day - firstDay));
+        }
+
+        private void update(int node, int lo, int hi, int from, int to, int delta) {
+            if (to < lo || hi < from) {
+                return;
+            }
+            if (from <= lo && hi <= to) {
+                add[node] += delta;
+                max[node] += delta;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            update(2 * node, lo, mid, from, to, delta);
+            update(2 * node + 1, mid + 1, hi, from, to, delta);
+            max[node] = add[node] + Math.max(max[2 * node], max[2 * node + 1]);
+        }
+
+        private int query(int node, int lo, int hi, int from, int to) {
+            if (to < lo || hi < from) {
+                return NONE;
+            }
+            if (from <= lo && hi <= to) {
+                return max[node];
+            }
+            int mid = (lo + hi) >>> 1;
+            int best = Math.max(query(2 * node, lo, mid, from, to), query(2 * node + 1, mid + 1, hi, from, to));
+            return best == NONE ? NONE : best + add[node];
+        }
+
+        // Per-day values: a leaf's max plus the adds of its ancestors
+        private void collect(int node, int lo, int hi, int above, int[] out) {
+            if (lo == hi) {
+                out[lo] = above + max[node];
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            collect(2 * node, lo, mid, above + add[node], out);
+            collect(2 * node + 1, mid + 1, hi, above + add[node], out);
+        }
+
+        private void build(int node, int lo, int hi, int[] values) {
+            if (lo == hi) {
+                max[node] = values[lo];
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            build(2 * node, lo, mid, values);
+            build(2 * node + 1, mid + 1, hi, values);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+}
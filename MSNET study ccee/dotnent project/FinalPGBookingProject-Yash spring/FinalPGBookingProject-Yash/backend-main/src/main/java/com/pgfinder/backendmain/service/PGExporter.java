@@ -0,0 +1,146 @@
+package com.pgfinder.backendmain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgfinder.backendmain.dto.PGRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams the whole catalog as NDJSON (one PG per line) straight from a forward-only JDBC cursor.
+// Only the PG currently being assembled is held in memory, whatever the catalog size.
+@Service
+public class PGExporter {
+
+    // Rows come ordered by PG id (images in upload order) with one row per image, so a PG is complete once the id changes
+    private static final String EXPORT_SQL = "SELECT p.id, p.name, p.address, p.price, p.description, p.owner_username, "
+            + "p.video_url, p.gender, p.latitude, p.longitude, p.total_beds, p.available_beds, p.rating_sum, p.rating_count, p.version, p.updated_at, "
+            + "i.image_url FROM pgs p LEFT JOIN pg_images i ON i.pg_id = p.id ORDER BY p.id, i.position";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public PGExporter(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(streamingFetchSize(dataSource));
+        this.objectMapper = objectMapper;
+    }
+
+    // Connector/J only streams row by row (instead of buffering the whole result) with Integer.MIN_VALUE,
+    // which other drivers reject; for those a positive fetch size reads the cursor in chunks
+    private static int streamingFetchSize(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : 1000;
+        } catch (MetaDataAccessException e) {
+            return 1000;
+        }
+    }
+
+    public void exportNdjson(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        LineWriter writer = new LineWriter(buffered);
+        try {
+            jdbcTemplate.query(EXPORT_SQL, writer);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading the cursor
+            throw e.getCause();
+        }
+        writer.writeCurrent();
+        buffered.flush();
+    }
+
+    private final class LineWriter implements RowCallbackHandler {
+        private final OutputStream out;
+        private ResultRow current;
+        private final List<String> images = new ArrayList<>();
+
+        private LineWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id != id) {
+                writeCurrent();
+                current = new ResultRow(rs);
+            }
+            String image = rs.getString("image_url");
+            if (image != null) {
+                images.add(image);
+            }
+        }
+
+        private void writeCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(current.toRecord(images)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+            images.clear();
+        }
+    }
+
+    private static final class ResultRow {
+        private final long id;
+        private final String name;
+        private final String address;
+        private final Double price;
+        private final String description;
+        private final String ownerUsername;
+        private final String videoUrl;
+        private final String gender;
+        private final Double latitude;
+        private final Double longitude;
+        private final Integer totalBeds;
+        private final Integer availableBeds;
+        private final long ratingSum;
+        private final long ratingCount;
+        private final long version;
+        private final LocalDateTime updatedAt;
+
+        private ResultRow(ResultSet rs) throws SQLException {
+            id = rs.getLong("id");
+            name = rs.getString("name");
+            address = rs.getString("address");
+            price = rs.getObject("price", Double.class);
+            description = rs.getString("description");
+            ownerUsername = rs.getString("owner_username");
+            videoUrl = rs.getString("video_url");
+            gender = rs.getString("gender");
+            latitude = rs.getObject("latitude", Double.class);
+            longitude = rs.getObject("longitude", Double.class);
+            totalBeds = rs.getObject("total_beds", Integer.class);
+            availableBeds = rs.getObject("available_beds", Integer.class);
+            ratingSum = rs.getLong("rating_sum");
+            ratingCount = rs.getLong("rating_count");
+            version = rs.getLong("version");
+            updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+        }
+
+        private PGRecord toRecord(List<String> images) {
+            return new PGRecord(id, name, address, price, description, ownerUsername, List.copyOf(images), videoUrl,
+                    gender, latitude, longitude, totalBeds, availableBeds, ratingCount > 0 ? (double) ratingSum / ratingCount : 0, ratingCount,
+                    version, updatedAt);
+        }
+    }
+}
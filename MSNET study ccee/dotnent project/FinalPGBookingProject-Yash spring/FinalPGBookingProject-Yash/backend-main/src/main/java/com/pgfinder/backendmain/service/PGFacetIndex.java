@@ -0,0 +1,314 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGFacets;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bitset indexes over PG ordinals for the search page facets (gender, price bucket, locality).
+// A filter is the AND of the selected value bitsets; each facet count is the cardinality of
+// filter AND value. The snapshot is immutable and replaced on write: only the bitsets of the
+// values a PG moves between are cloned.
+@Service
+public class PGFacetIndex {
+
+    private static final int PRICE_BUCKET_WIDTH = 2000;
+    private static final int MAX_PRICE_BUCKET = 15; // last bucket is "30000+"
+    private static final int MAX_LOCALITY_FACETS = 20;
+
+    private final PGCatalog pgCatalog;
+
+    private volatile Snapshot snapshot = new Snapshot(new BitSet(), Map.of(), Map.of(), Map.of(), new PGRecord[0]);
+
+    // Ordinals are stable for a PG's lifetime; readers verify them against their snapshot
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+
+    // Writer-side state, guarded by this
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int nextOrdinal;
+
+    public PGFacetIndex(PGCatalog pgCatalog) {
+        this.pgCatalog = pgCatalog;
+    }
+
+    // Builds the first snapshot in one pass, setting bits in place; put's copy-on-write is only
+    // needed once readers can see the snapshot
+    @PostConstruct
+    public synchronized void init() {
+        List<PGRecord> all = pgCatalog.all();
+        BitSet live = new BitSet(all.size());
+        Map<String, BitSet> genders = new HashMap<>();
+        Map<Integer, BitSet> priceBuckets = new HashMap<>();
+        Map<String, BitSet> localities = new HashMap<>();
+        PGRecord[] records = new PGRecord[all.size()];
+        for (PGRecord pg : all) {
+            int ordinal = nextOrdinal++;
+            ordinals.put(pg.id(), ordinal);
+            records[ordinal] = pg;
+            live.set(ordinal);
+            if (pg.gender() != null) {
+                genders.computeIfAbsent(pg.gender(), k -> new BitSet()).set(ordinal);
+            }
+            if (pg.price() != null) {
+                priceBuckets.computeIfAbsent(bucketOf(pg.price()), k -> new BitSet()).set(ordinal);
+            }
+            if (pg.locality() != null) {
+                localities.computeIfAbsent(pg.locality().toLowerCase(), k -> new BitSet()).set(ordinal);
+            }
+        }
+        snapshot = new Snapshot(live, genders, priceBuckets, localities, records);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getPgId());
+        } else {
+            put(event.getPg());
+        }
+    }
+
+    // Facet counts for everything matching the criteria. When restrictTo is non-null
+    // (e.g. the ids a free-text query matched) only those PGs are counted; excluded ids
+    // (e.g. PGs fully booked for the requested stay) are never counted.
+    public PGFacets facets(PGSearchCriteria criteria, Collection<Long> restrictTo, Collection<Long> excluded) {
+        Snapshot s = snapshot;
+        BitSet filter = (BitSet) s.live.clone();
+
+        if (criteria.getGender() != null && !criteria.getGender().isBlank()) {
+            filter.and(s.genders.getOrDefault(criteria.getGender(), new BitSet()));
+        }
+        if (criteria.getLocality() != null && !criteria.getLocality().isBlank()) {
+            filter.and(s.localities.getOrDefault(criteria.getLocality().trim().toLowerCase(), new BitSet()));
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            filter.and(priceRange(s, criteria.getMinPrice(), criteria.getMaxPrice()));
+        }
+        if (restrictTo != null) {
+            BitSet allowed = new BitSet();
+            for (Long id : restrictTo) {
+                Integer ordinal = ordinalOf(s, id);
+                if (ordinal != null) {
+                    allowed.set(ordinal);
+                }
+            }
+            filter.and(allowed);
+        }
+        if (excluded != null) {
+            for (Long id : excluded) {
+                Integer ordinal = ordinalOf(s, id);
+                if (ordinal != null) {
+                    filter.clear(ordinal);
+                }
+            }
+        }
+        // Owner and address substring have no bitset; check them only on the surviving bits
+        if (hasText(criteria.getOwner()) || hasText(criteria.getAddress())) {
+            for (int i = filter.nextSetBit(0); i >= 0; i = filter.nextSetBit(i + 1)) {
+                if (!criteria.matches(s.records[i])) {
+                    filter.clear(i);
+                }
+            }
+        }
+
+        Map<String, Long> genderCounts = counts(filter, s.genders, Integer.MAX_VALUE);
+        Map<String, Long> localityCounts = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : counts(filter, s.localities, MAX_LOCALITY_FACETS).entrySet()) {
+            localityCounts.put(displayLocality(s, entry.getKey()), entry.getValue());
+        }
+        Map<String, Long> priceCounts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket <= MAX_PRICE_BUCKET; bucket++) {
+            BitSet bits = s.priceBuckets.get(bucket);
+            if (bits == null) {
+                continue;
+            }
+            long count = countAnd(filter, bits);
+            if (count > 0) {
+                priceCounts.put(bucketLabel(bucket), count);
+            }
+        }
+        return new PGFacets(filter.cardinality(), genderCounts, priceCounts, localityCounts);
+    }
+
+    private Integer ordinalOf(Snapshot s, Long id) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null || ordinal >= s.records.length || !s.live.get(ordinal)
+                || !s.records[ordinal].id().equals(id)) {
+            return null;
+        }
+        return ordinal;
+    }
+
+    private BitSet priceRange(Snapshot s, Double min, Double max) {
+        int from = min != null ? bucketOf(min) : 0;
+        int to = max != null ? bucketOf(max) : MAX_PRICE_BUCKET;
+        BitSet result = new BitSet();
+        for (int bucket = from; bucket <= to; bucket++) {
+            BitSet bits = s.priceBuckets.get(bucket);
+            if (bits == null) {
+                continue;
+            }
+            double bucketLow = (double) bucket * PRICE_BUCKET_WIDTH;
+            double bucketHigh = bucket == MAX_PRICE_BUCKET ? Double.MAX_VALUE : bucketLow + PRICE_BUCKET_WIDTH;
+            boolean fullyInside = (min == null || min <= bucketLow) && (max == null || max >= bucketHigh);
+            if (fullyInside) {
+                result.or(bits);
+                continue;
+            }
+            // Edge bucket: check the exact price of each member
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                double price = s.records[i].price();
+                if ((min == null || price >= min) && (max == null || price <= max)) {
+                    result.set(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<String, Long> counts(BitSet filter, Map<K, BitSet> values, int limit) {
+        return values.entrySet().stream()
+                .map(e -> Map.entry(String.valueOf(e.getKey()), countAnd(filter, e.getValue())))
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()), Map::putAll);
+    }
+
+    private static long countAnd(BitSet filter, BitSet values) {
+        BitSet both = (BitSet) values.clone();
+        both.and(filter);
+        return both.cardinality();
+    }
+
+    private static String displayLocality(Snapshot s, String key) {
+        BitSet bits = s.localities.get(key);
+        int first = bits != null ? bits.nextSetBit(0) : -1;
+        return first >= 0 ? s.records[first].locality() : key;
+    }
+
+    private synchronized void put(PGRecord pg) {
+        Snapshot s = snapshot;
+        Integer existing = ordinals.get(pg.id());
+        int ordinal;
+        Snapshot cleared = s;
+        if (existing != null) {
+            // Skip a late event from an earlier commit rather than going back a version
+            if (s.records[existing].version() > pg.version()) {
+                return;
+            }
+            ordinal = existing;
+            cleared = without(s, ordinal);
+        } else {
+            ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+            ordinals.put(pg.id(), ordinal);
+        }
+        snapshot = with(cleared, ordinal, pg);
+    }
+
+    private synchronized void remove(Long pgId) {
+        Integer ordinal = ordinals.remove(pgId);
+        if (ordinal == null) {
+            return;
+        }
+        snapshot = without(snapshot, ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    private static Snapshot with(Snapshot s, int ordinal, PGRecord pg) {
+        BitSet live = (BitSet) s.live.clone();
+        live.set(ordinal);
+        PGRecord[] records = Arrays.copyOf(s.records, Math.max(s.records.length, ordinal + 1));
+        records[ordinal] = pg;
+        return new Snapshot(live,
+                setBit(s.genders, pg.gender(), ordinal),
+                setBit(s.priceBuckets, pg.price() != null ? bucketOf(pg.price()) : null, ordinal),
+                setBit(s.localities, pg.locality() != null ? pg.locality().toLowerCase() : null, ordinal),
+                records);
+    }
+
+    private static Snapshot without(Snapshot s, int ordinal) {
+        PGRecord old = s.records[ordinal];
+        BitSet live = (BitSet) s.live.clone();
+        live.clear(ordinal);
+        PGRecord[] records = s.records.clone();
+        records[ordinal] = null;
+        return new Snapshot(live,
+                clearBit(s.genders, old.gender(), ordinal),
+                clearBit(s.priceBuckets, old.price() != null ? bucketOf(old.price()) : null, ordinal),
+                clearBit(s.localities, old.locality() != null ? old.locality().toLowerCase() : null, ordinal),
+                records);
+    }
+
+    private static <K> Map<K, BitSet> setBit(Map<K, BitSet> values, K key, int ordinal) {
+        if (key == null) {
+            return values;
+        }
+        Map<K, BitSet> copy = new HashMap<>(values);
+        BitSet bits = values.containsKey(key) ? (BitSet) values.get(key).clone() : new BitSet();
+        bits.set(ordinal);
+        copy.put(key, bits);
+        return copy;
+    }
+
+    private static <K> Map<K, BitSet> clearBit(Map<K, BitSet> values, K key, int ordinal) {
+        if (key == null || !values.containsKey(key)) {
+            return values;
+        }
+        Map<K, BitSet> copy = new HashMap<>(values);
+        BitSet bits = (BitSet) values.get(key).clone();
+        bits.clear(ordinal);
+        if (bits.isEmpty()) {
+            copy.remove(key);
+        } else {
+            copy.put(key, bits);
+        }
+        return copy;
+    }
+
+    private static int bucketOf(double price) {
+        return (int) Math.max(0, Math.min(MAX_PRICE_BUCKET, Math.floor(price / PRICE_BUCKET_WIDTH)));
+    }
+
+    private static String bucketLabel(int bucket) {
+        int low = bucket * PRICE_BUCKET_WIDTH;
+        return bucket == MAX_PRICE_BUCKET ? low + "+" : low + "-" + (low + PRICE_BUCKET_WIDTH);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static final class Snapshot {
+        private final BitSet live;
+        private final Map<String, BitSet> genders;
+        private final Map<Integer, BitSet> priceBuckets;
+        private final Map<String, BitSet> localities; // keyed by lower-cased locality
+        private final PGRecord[] records; // indexed by ordinal
+
+        private Snapshot(BitSet live, Map<String, BitSet> genders, Map<Integer, BitSet> priceBuckets,
+                         Map<String, BitSet> localities, PGRecord[] records) {
+            this.live = live;
+            this.genders = genders;
+            this.priceBuckets = priceBuckets;
+            this.localities = localities;
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pgfinder.backendmain.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Numbers the images of PGs saved before pg_images had a position column, in the order they are stored
+// (insertion order). Runs before the catalog loads any PG, since a null list index cannot be read back.
+@Service
+public class PGImagePositions {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PGImagePositions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void backfill() {
+        List<Long> pgIds = jdbcTemplate.queryForList("SELECT DISTINCT pg_id FROM pg_images WHERE position IS NULL", Long.class);
+        for (Long pgId : pgIds) {
+            // Rewritten per PG in its own transaction, so an interrupted backfill never loses images
+            transactionTemplate.executeWithoutResult(status -> renumber(pgId));
+        }
+        if (!pgIds.isEmpty()) {
+            System.out.println("Numbered the images of " + pgIds.size() + " PGs.");
+        }
+    }
+
+    private void renumber(Long pgId) {
+        List<String> urls = jdbcTemplate.queryForList("SELECT image_url FROM pg_images WHERE pg_id = ?", String.class, pgId);
+        List<Object[]> rows = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            rows.add(new Object[]{pgId, i, urls.get(i)});
+        }
+        jdbcTemplate.update("DELETE FROM pg_images WHERE pg_id = ?", pgId);
+        jdbcTemplate.batchUpdate("INSERT INTO pg_images (pg_id, position, image_url) VALUES (?, ?, ?)", rows);
+    }
+}
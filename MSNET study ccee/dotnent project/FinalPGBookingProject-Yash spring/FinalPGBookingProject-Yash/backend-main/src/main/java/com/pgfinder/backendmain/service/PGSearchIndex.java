@@ -0,0 +1,322 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+// In-process inverted index over PG name, description and address, ranked with BM25.
+// Each term maps to a posting list of (pg id, term frequency) pairs sorted by id and
+// stored as delta + varint encoded bytes. Lists are replaced whole on write, so
+// readers never see a half-updated list.
+@Service
+public class PGSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2; // name tokens count twice
+
+    // English function words only; domain words such as city names stay searchable
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "from", "in", "is", "near", "of", "on", "or",
+            "the", "to", "with");
+
+    private final PGCatalog pgCatalog;
+
+    private final Map<String, byte[]> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> docTerms = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> docLengths = new ConcurrentHashMap<>();
+    private volatile long totalLength;
+
+    // Version of the record each PG was last indexed from, guarded by this
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    public PGSearchIndex(PGCatalog pgCatalog) {
+        this.pgCatalog = pgCatalog;
+    }
+
+    // Builds every posting list in one pass: pairs are appended per term (the catalog is sorted by id,
+    // so each list comes out sorted) and encoded once, instead of re-encoding a list per PG
+    @PostConstruct
+    public synchronized void init() {
+        Map<String, PostingBuilder> builders = new HashMap<>();
+        long total = 0;
+        for (PGRecord pg : pgCatalog.all()) {
+            Map<String, Integer> tf = termFrequencies(pg);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : tf.entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), term -> new PostingBuilder()).add(pg.id(), entry.getValue());
+                length += entry.getValue();
+            }
+            docTerms.put(pg.id(), tf.keySet());
+            docLengths.put(pg.id(), length);
+            versions.put(pg.id(), pg.version());
+            total += length;
+        }
+        for (Map.Entry<String, PostingBuilder> entry : builders.entrySet()) {
+            postings.put(entry.getKey(), encode(entry.getValue().toArray()));
+        }
+        totalLength = total;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            delete(event.getPgId());
+        } else {
+            put(event.getPg());
+        }
+    }
+
+    // Ranks every PG matching the query and accepted by filter. Filtering happens while walking the
+    // scores, so total counts all accepted matches and only the best limit of them are sorted.
+    public Hits search(String query, int limit, LongPredicate filter) {
+        List<String> terms = tokenize(query);
+        int docCount = docTerms.size();
+        if (terms.isEmpty() || docCount == 0) {
+            return new Hits(List.of(), 0, Set.of());
+        }
+        double avgLength = Math.max(1.0, (double) totalLength / docCount);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : new LinkedHashSet<>(terms)) {
+            byte[] list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            long[] decoded = decode(list);
+            int df = decoded.length / 2;
+            double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < decoded.length; i += 2) {
+                long pgId = decoded[i];
+                long tf = decoded[i + 1];
+                int length = docLengths.getOrDefault(pgId, 0);
+                double norm = tf + K1 * (1 - B + B * length / avgLength);
+                scores.merge(pgId, idf * tf * (K1 + 1) / norm, Double::sum);
+            }
+        }
+
+        int total = 0;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (!filter.test(entry.getKey())) {
+                continue;
+            }
+            total++;
+            if (limit <= 0) {
+                continue;
+            }
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        Long[] ranked = new Long[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll().getKey();
+        }
+        return new Hits(Arrays.asList(ranked), total, scores.keySet());
+    }
+
+    // ids: best-first, at most limit; total: all matches passing the filter;
+    // matched: every PG matching the query text, before filtering (for facet counts)
+    public record Hits(List<Long> ids, int total, Set<Long> matched) {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String raw : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw)) {
+                continue;
+            }
+            tokens.add(stem(raw));
+        }
+        return tokens;
+    }
+
+    // Very light plural stripping so "meals" matches "meal"
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    // Term frequencies of one PG; their sum is the document length
+    private static Map<String, Integer> termFrequencies(PGRecord pg) {
+        Map<String, Integer> tf = new LinkedHashMap<>();
+        for (String token : tokenize(pg.name())) {
+            tf.merge(token, NAME_BOOST, Integer::sum);
+        }
+        for (String token : tokenize(pg.description())) {
+            tf.merge(token, 1, Integer::sum);
+        }
+        for (String token : tokenize(pg.address())) {
+            tf.merge(token, 1, Integer::sum);
+        }
+        return tf;
+    }
+
+    // Incremental update for a single PG after startup
+    private synchronized void put(PGRecord pg) {
+        // Events of concurrent commits can arrive out of order; an older record must not replace a newer one
+        Long indexed = versions.get(pg.id());
+        if (indexed != null && indexed > pg.version()) {
+            return;
+        }
+        versions.put(pg.id(), pg.version());
+        remove(pg.id());
+
+        Map<String, Integer> tf = termFrequencies(pg);
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : tf.entrySet()) {
+            long[] current = decodeOrEmpty(postings.get(entry.getKey()));
+            postings.put(entry.getKey(), encode(insert(current, pg.id(), entry.getValue())));
+            length += entry.getValue();
+        }
+        docTerms.put(pg.id(), tf.keySet());
+        docLengths.put(pg.id(), length);
+        totalLength += length;
+    }
+
+    private synchronized void delete(Long pgId) {
+        versions.remove(pgId);
+        remove(pgId);
+    }
+
+    private synchronized void remove(Long pgId) {
+        Set<String> old = docTerms.remove(pgId);
+        if (old == null) {
+            return;
+        }
+        for (String term : old) {
+            long[] current = decodeOrEmpty(postings.get(term));
+            long[] updated = delete(current, pgId);
+            if (updated.length == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, encode(updated));
+            }
+        }
+        Integer length = docLengths.remove(pgId);
+        totalLength -= length != null ? length : 0;
+    }
+
+    // Posting arrays are flattened (id, tf) pairs sorted by id
+
+    private static long[] insert(long[] pairs, long pgId, long tf) {
+        int pos = 0;
+        while (pos < pairs.length && pairs[pos] < pgId) {
+            pos += 2;
+        }
+        long[] result = new long[pairs.length + 2];
+        System.arraycopy(pairs, 0, result, 0, pos);
+        result[pos] = pgId;
+        result[pos + 1] = tf;
+        System.arraycopy(pairs, pos, result, pos + 2, pairs.length - pos);
+        return result;
+    }
+
+    private static long[] delete(long[] pairs, long pgId) {
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (pairs[i] == pgId) {
+                long[] result = new long[pairs.length - 2];
+                System.arraycopy(pairs, 0, result, 0, i);
+                System.arraycopy(pairs, i + 2, result, i, pairs.length - i - 2);
+                return result;
+            }
+        }
+        return pairs;
+    }
+
+    private static byte[] encode(long[] pairs) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pairs.length * 2);
+        long previous = 0;
+        for (int i = 0; i < pairs.length; i += 2) {
+            writeVarint(out, pairs[i] - previous);
+            writeVarint(out, pairs[i + 1]);
+            previous = pairs[i];
+        }
+        return out.toByteArray();
+    }
+
+    private static long[] decodeOrEmpty(byte[] bytes) {
+        return bytes == null ? new long[0] : decode(bytes);
+    }
+
+    private static long[] decode(byte[] bytes) {
+        long[] buffer = new long[16];
+        int size = 0;
+        int pos = 0;
+        long previous = 0;
+        boolean isId = true;
+        while (pos < bytes.length) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            if (isId) {
+                previous += value;
+                buffer[size++] = previous;
+            } else {
+                buffer[size++] = value;
+            }
+            isId = !isId;
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    // Growable (id, tf) pair buffer used by the bulk build
+    private static final class PostingBuilder {
+        private long[] pairs = new long[8];
+        private int size;
+
+        private void add(long pgId, long tf) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = pgId;
+            pairs[size++] = tf;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(pairs, size);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
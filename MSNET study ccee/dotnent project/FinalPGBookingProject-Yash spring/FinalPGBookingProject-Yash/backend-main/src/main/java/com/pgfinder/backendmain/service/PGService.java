@@ -1,13 +1,26 @@
 package com.pgfinder.backendmain.service;
 
+import com.pgfinder.backendmain.dto.PGListItem;
+import com.pgfinder.backendmain.dto.PGPageResponse;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.dto.PGSearchResponse;
 import com.pgfinder.backendmain.entity.PG;
 import java.util.List;
 
 public interface PGService {
     PG createPG(PG pg);
     List<PG> getAllPGs();
-    List<PG> getPGsByOwner(String ownerUsername);
+    PGPageResponse getPGPage(String sort, String cursor, Integer limit);
+    PGSearchResponse searchPGs(PGSearchCriteria criteria, String sort, int page, int size);
+    List<PGRecord> getPGsByOwner(String ownerUsername);
+    List<PGListItem> getPGSummaries();
+    List<PGListItem> getPGSummariesByOwner(String ownerUsername);
     PG getPGById(Long id);
     PG updatePG(Long id, PG pgDetails);
     void deletePG(Long id);
+    void recordRating(Long pgId, int rating);
+    boolean reconcileRatings(Long pgId);
+    boolean reserveBed(Long pgId);
+    void releaseBeds(Long pgId, int count);
 }
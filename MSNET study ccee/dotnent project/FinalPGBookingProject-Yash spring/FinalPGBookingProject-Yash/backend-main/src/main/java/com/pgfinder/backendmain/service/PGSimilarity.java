@@ -0,0 +1,329 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.SimilarPG;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// "Similar PGs": every PG becomes a small feature vector (log price, gender, hashed locality,
+// amenities mentioned in the description, rating) and nearest neighbours come from a ball tree.
+// Writes do not rebuild the tree: changed PGs go to a small delta (their tree entry is masked)
+// and the tree is rebuilt only once the delta grows past a fraction of the catalog.
+@Service
+public class PGSimilarity {
+
+    private static final int LEAF_SIZE = 16;
+    private static final int MAX_RESULTS = 20;
+    private static final int MIN_REBUILD_DELTA = 32;
+
+    private static final double PRICE_WEIGHT = 1.5; // per doubling of price
+    private static final double GENDER_WEIGHT = 0.7;
+    private static final double LOCALITY_WEIGHT = 1.0;
+    private static final double AMENITY_WEIGHT = 0.4;
+    private static final double RATING_WEIGHT = 0.5; // per rating star
+    private static final double UNRATED = 3.5;
+
+    private static final String[] GENDERS = {"Boys", "Girls", "Co-ed"};
+    private static final int LOCALITY_BUCKETS = 8;
+
+    // Each amenity is one dimension, set when any of its keywords appears in the description
+    private static final String[][] AMENITIES = {
+            {"wifi", "wi-fi", "internet"},
+            {"meal", "food", "breakfast", "dinner", "lunch", "mess", "tiffin"},
+            {" ac ", "a/c", "air condition"},
+            {"gym"},
+            {"laundry", "washing", "cleaning", "housekeeping"},
+            {"parking"},
+            {"security", "cctv"},
+            {"pool"},
+            {"power backup", "generator"},
+            {"attached bath", "attached washroom", "attached toilet"}
+    };
+
+    private static final int DIMENSIONS = 1 + GENDERS.length + LOCALITY_BUCKETS + AMENITIES.length + 1;
+
+    private final PGCatalog pgCatalog;
+
+    private volatile Index index = new Index(null, new long[0], new double[0][], Map.of(), Map.of(), Set.of());
+
+    // Writer-side: current vector of every PG, guarded by this
+    private final Map<Long, double[]> vectors = new HashMap<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    public PGSimilarity(PGCatalog pgCatalog) {
+        this.pgCatalog = pgCatalog;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        for (PGRecord pg : pgCatalog.all()) {
+            vectors.put(pg.id(), features(pg));
+            versions.put(pg.id(), pg.version());
+        }
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPGChanged(PGChangedEvent event) {
+        if (!event.isDeleted()) {
+            // Out-of-order delivery: keep the vector of the newest record seen
+            Long applied = versions.get(event.getPgId());
+            if (applied != null && applied > event.getPg().version()) {
+                return;
+            }
+        }
+        Index current = index;
+        Map<Long, double[]> delta = new HashMap<>(current.delta);
+        Set<Long> masked = new HashSet<>(current.masked);
+        if (event.isDeleted()) {
+            vectors.remove(event.getPgId());
+            versions.remove(event.getPgId());
+            delta.remove(event.getPgId());
+        } else {
+            double[] vector = features(event.getPg());
+            vectors.put(event.getPgId(), vector);
+            versions.put(event.getPgId(), event.getPg().version());
+            delta.put(event.getPgId(), vector);
+        }
+        masked.add(event.getPgId());
+        if (delta.size() + masked.size() > Math.max(MIN_REBUILD_DELTA, vectors.size() / 16)) {
+            rebuild();
+        } else {
+            index = new Index(current.root, current.ids, current.points, current.positions, delta, masked);
+        }
+    }
+
+    // Nearest PGs to the given one, excluding itself; null when the PG is unknown
+    public List<SimilarPG> similar(Long pgId, int limit) {
+        Index current = index;
+        double[] query = current.delta.get(pgId);
+        if (query == null && !current.masked.contains(pgId)) {
+            query = current.vectorInTree(pgId);
+        }
+        if (query == null) {
+            return null;
+        }
+        int k = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble((Hit h) -> h.distance).reversed());
+        if (current.root != null) {
+            search(current, current.root, query, pgId, k, best);
+        }
+        for (Map.Entry<Long, double[]> entry : current.delta.entrySet()) {
+            if (!entry.getKey().equals(pgId)) {
+                offer(best, k, new Hit(entry.getKey(), distance(query, entry.getValue())));
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(h -> h.distance));
+        List<SimilarPG> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            PGRecord pg = pgCatalog.get(hit.pgId);
+            if (pg != null) {
+                results.add(new SimilarPG(pg, hit.distance));
+            }
+        }
+        return results;
+    }
+
+    private void search(Index current, Node node, double[] query, Long exclude, int k, PriorityQueue<Hit> best) {
+        double bound = distance(query, node.center) - node.radius;
+        if (best.size() == k && bound >= best.peek().distance) {
+            return;
+        }
+        if (node.left == null) {
+            for (int i = node.start; i < node.end; i++) {
+                long id = current.ids[i];
+                if (id != exclude && !current.masked.contains(id)) {
+                    offer(best, k, new Hit(id, distance(query, current.points[i])));
+                }
+            }
+            return;
+        }
+        // Visit the closer child first so the far one is more likely to be pruned
+        boolean leftFirst = distance(query, node.left.center) <= distance(query, node.right.center);
+        search(current, leftFirst ? node.left : node.right, query, exclude, k, best);
+        search(current, leftFirst ? node.right : node.left, query, exclude, k, best);
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int k, Hit hit) {
+        if (best.size() < k) {
+            best.offer(hit);
+        } else if (hit.distance < best.peek().distance) {
+            best.poll();
+            best.offer(hit);
+        }
+    }
+
+    private void rebuild() {
+        long[] ids = new long[vectors.size()];
+        double[][] points = new double[vectors.size()][];
+        int i = 0;
+        for (Map.Entry<Long, double[]> entry : vectors.entrySet()) {
+            ids[i] = entry.getKey();
+            points[i] = entry.getValue();
+            i++;
+        }
+        Node root = ids.length == 0 ? null : build(ids, points, 0, ids.length);
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int p = 0; p < ids.length; p++) {
+            positions.put(ids[p], p);
+        }
+        index = new Index(root, ids, points, positions, Map.of(), Set.of());
+    }
+
+    // Splits on the dimension with the widest spread, at the median
+    private static Node build(long[] ids, double[][] points, int start, int end) {
+        Node node = new Node(start, end);
+        node.center = new double[DIMENSIONS];
+        for (int i = start; i < end; i++) {
+            for (int d = 0; d < DIMENSIONS; d++) {
+                node.center[d] += points[i][d] / (end - start);
+            }
+        }
+        for (int i = start; i < end; i++) {
+            node.radius = Math.max(node.radius, distance(node.center, points[i]));
+        }
+        if (end - start <= LEAF_SIZE) {
+            return node;
+        }
+
+        int splitDim = 0;
+        double widest = -1;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                min = Math.min(min, points[i][d]);
+                max = Math.max(max, points[i][d]);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                splitDim = d;
+            }
+        }
+        Integer[] order = new Integer[end - start];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = start + i;
+        }
+        final int dim = splitDim;
+        Arrays.sort(order, Comparator.comparingDouble(i -> points[i][dim]));
+        long[] sortedIds = new long[order.length];
+        double[][] sortedPoints = new double[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedPoints[i] = points[order[i]];
+        }
+        System.arraycopy(sortedIds, 0, ids, start, order.length);
+        System.arraycopy(sortedPoints, 0, points, start, order.length);
+
+        int mid = start + (end - start) / 2;
+        node.left = build(ids, points, start, mid);
+        node.right = build(ids, points, mid, end);
+        return node;
+    }
+
+    private static double[] features(PGRecord pg) {
+        double[] v = new double[DIMENSIONS];
+        int d = 0;
+        double price = pg.price() != null && pg.price() > 0 ? pg.price() : 1;
+        v[d++] = PRICE_WEIGHT * Math.log(price) / Math.log(2);
+
+        for (String gender : GENDERS) {
+            v[d++] = gender.equalsIgnoreCase(pg.gender()) ? GENDER_WEIGHT : 0;
+        }
+
+        String locality = pg.locality();
+        if (locality != null) {
+            v[d + Math.floorMod(locality.toLowerCase().hashCode(), LOCALITY_BUCKETS)] = LOCALITY_WEIGHT;
+        }
+        d += LOCALITY_BUCKETS;
+
+        String text = " " + (pg.description() != null ? pg.description().toLowerCase() : "") + " ";
+        for (String[] keywords : AMENITIES) {
+            for (String keyword : keywords) {
+                if (text.contains(keyword)) {
+                    v[d] = AMENITY_WEIGHT;
+                    break;
+                }
+            }
+            d++;
+        }
+
+        v[d] = RATING_WEIGHT * (pg.ratingCount() > 0 ? pg.averageRating() : UNRATED);
+        return v;
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            double diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // Tree over ids/points as of the last rebuild; delta holds vectors written since, and masked
+    // lists tree entries that are stale (updated or deleted since the rebuild)
+    private static final class Index {
+        private final Node root;
+        private final long[] ids;
+        private final double[][] points;
+        private final Map<Long, double[]> delta;
+        private final Set<Long> masked;
+        private final Map<Long, Integer> positions; // id -> index into ids/points
+
+        private Index(Node root, long[] ids, double[][] points, Map<Long, Integer> positions,
+                      Map<Long, double[]> delta, Set<Long> masked) {
+            this.root = root;
+            this.ids = ids;
+            this.points = points;
+            this.positions = positions;
+            this.delta = delta;
+            this.masked = masked;
+        }
+
+        private double[] vectorInTree(Long pgId) {
+            Integer position = positions.get(pgId);
+            return position != null ? points[position] : null;
+        }
+    }
+
+    private static final class Node {
+        private final int start;
+        private final int end;
+        private double[] center;
+        private double radius;
+        private Node left;
+        private Node right;
+
+        private Node(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Hit {
+        private final Long pgId;
+        private final double distance;
+
+        private Hit(Long pgId, double distance) {
+            this.pgId = pgId;
+            this.distance = distance;
+        }
+    }
+}
@@ -1,57 +1,139 @@
 package com.pgfinder.backendmain.service.impl;
 
+import com.pgfinder.backendmain.dto.AidQueuePage;
+import com.pgfinder.backendmain.dto.BookingPageResponse;
+import com.pgfinder.backendmain.dto.BookingStatusResult;
+import com.pgfinder.backendmain.dto.BookingStatusUpdate;
+import com.pgfinder.backendmain.dto.BookingSummary;
 import com.pgfinder.backendmain.entity.Booking;
+import com.pgfinder.backendmain.entity.BookingEventType;
+import com.pgfinder.backendmain.entity.BookingStatus;
 import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.event.BookingCreatedEvent;
+import com.pgfinder.backendmain.event.BookingsConfirmedEvent;
+import com.pgfinder.backendmain.exception.ConflictException;
+import com.pgfinder.backendmain.exception.ResourceNotFoundException;
 import com.pgfinder.backendmain.repository.BookingRepository;
 import com.pgfinder.backendmain.repository.PGRepository;
+import com.pgfinder.backendmain.repository.PGSpecifications;
+import com.pgfinder.backendmain.service.BookingEventLog;
+import com.pgfinder.backendmain.service.BookingProjections;
 import com.pgfinder.backendmain.service.BookingService;
+import com.pgfinder.backendmain.service.PGAvailability;
+import com.pgfinder.backendmain.service.PGService;
+import com.pgfinder.backendmain.service.WaitlistQueue;
+import com.pgfinder.backendmain.service.WaitlistService;
+import com.pgfinder.backendmain.util.BookingCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_UPDATES = 500;
+
+    // Seek start for the first queue page; earlier than any booking
+    private static final LocalDateTime QUEUE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Sort keys accepted from clients, mapped to entity paths; ties are broken by id in the same direction
+    private static final Map<String, String> OWNER_SORTS = Map.of(
+            "bookingDate", "bookingDate",
+            "status", "status",
+            "price", "pg.price",
+            "pgName", "pg.name");
+
     private final BookingRepository bookingRepository;
     private final PGRepository pgRepository;
+    private final PGService pgService;
+    private final PGAvailability pgAvailability;
+    private final BookingEventLog bookingEventLog;
+    private final BookingProjections bookingProjections;
+    private final WaitlistService waitlistService;
     private final com.pgfinder.backendmain.repository.UserRepository userRepository;
-    private final com.pgfinder.backendmain.service.EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookingServiceImpl(BookingRepository bookingRepository, PGRepository pgRepository,
+    public BookingServiceImpl(BookingRepository bookingRepository, PGRepository pgRepository, PGService pgService,
+                              PGAvailability pgAvailability, BookingEventLog bookingEventLog,
+                              BookingProjections bookingProjections, WaitlistService waitlistService,
                               com.pgfinder.backendmain.repository.UserRepository userRepository,
-                              com.pgfinder.backendmain.service.EmailService emailService) {
+                              ApplicationEventPublisher eventPublisher) {
         this.bookingRepository = bookingRepository;
         this.pgRepository = pgRepository;
+        this.pgService = pgService;
+        this.pgAvailability = pgAvailability;
+        this.bookingEventLog = bookingEventLog;
+        this.bookingProjections = bookingProjections;
+        this.waitlistService = waitlistService;
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
     }
 
+    // Self-calls bypass the proxy, so each overload starts the transaction that reserveBed and the event log join
     @Override
+    @Transactional
     public Booking createBooking(Long pgId, String username) {
         return createBooking(pgId, username, null, false);
     }
 
     @Override
+    @Transactional
     public Booking createBooking(Long pgId, String username, Long donorId) {
          return createBooking(pgId, username, donorId, false);
     }
 
     @Override
+    @Transactional
     public Booking createBooking(Long pgId, String username, Long donorId, boolean requestAid) {
+        return createBooking(pgId, username, donorId, requestAid, null, null);
+    }
+
+    @Override
+    @Transactional
+    public Booking createBooking(Long pgId, String username, Long donorId, boolean requestAid,
+                                 LocalDate checkIn, LocalDate checkOut) {
+        LocalDateTime now = LocalDateTime.now();
+        if ((checkIn == null) != (checkOut == null)) {
+            throw new IllegalArgumentException("checkIn and checkOut must be given together");
+        }
+        if (checkIn != null) {
+            pgAvailability.validate(checkIn, checkOut);
+            if (checkIn.isBefore(now.toLocalDate())) {
+                throw new IllegalArgumentException("Check-in cannot be in the past");
+            }
+        }
+        // Take a bed first (409 when full); rolled back with the booking if anything below fails
+        boolean holdsBed = occupy(pgId, checkIn, checkOut, now.toLocalDate());
         PG pg = pgRepository.findById(pgId).orElseThrow(() -> new RuntimeException("PG not found"));
         
         Booking booking = new Booking();
         booking.setPg(pg);
         booking.setUsername(username);
-        booking.setBookingDate(LocalDateTime.now());
+        booking.setHoldsBed(holdsBed);
+        booking.setBookingDate(now);
+        booking.setCheckIn(checkIn);
+        booking.setCheckOut(checkOut);
         
         if (requestAid) {
-            booking.setStatus("REQUESTING_AID");
+            booking.setStatus(BookingStatus.REQUESTING_AID);
         } else {
-            booking.setStatus("PENDING");
+            booking.setStatus(BookingStatus.PENDING);
         }
 
         if (donorId != null) {
@@ -64,18 +146,106 @@ public class BookingServiceImpl implements BookingService {
             }
         }
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        bookingEventLog.append(BookingEventType.CREATED, saved);
+        eventPublisher.publishEvent(new BookingCreatedEvent(saved.getId(), pg.getId(), username));
+        return saved;
+    }
+
+    // Takes a bed for a new or reopened booking, or throws ConflictException. Dated stays are checked
+    // against the availability calendar under the PG row lock; open-ended bookings take a bed from the
+    // counter (whose UPDATE holds the same lock) and must also fit around dated stays from openFrom on.
+    // Returns whether the booking holds a counter bed.
+    private boolean occupy(Long pgId, LocalDate checkIn, LocalDate checkOut, LocalDate openFrom) {
+        if (checkIn != null) {
+            PG pg = pgRepository.findByIdForUpdate(pgId)
+                    .orElseThrow(() -> new ResourceNotFoundException("PG not found with id: " + pgId));
+            if (!pgAvailability.hold(pgId, pg.getTotalBeds(), checkIn, checkOut)) {
+                throw new ConflictException("No bed free at " + pg.getName() + " for every night of the stay");
+            }
+            return false;
+        }
+        boolean holdsBed = pgService.reserveBed(pgId);
+        if (holdsBed) {
+            PG pg = pgRepository.findById(pgId)
+                    .orElseThrow(() -> new ResourceNotFoundException("PG not found with id: " + pgId));
+            if (!pgAvailability.hold(pgId, pg.getTotalBeds(), openFrom, null)) {
+                throw new ConflictException("No beds available at " + pg.getName());
+            }
+        }
+        return holdsBed;
+    }
+
+    // Hands beds freed at a PG straight to the oldest waiters, so nobody booking at the same time can jump
+    // the queue, and returns how many were handed over; the caller releases the rest. Runs under the PG
+    // row lock, which waitlist joins take too, so concurrent cancellations promote different waiters.
+    private int promoteWaitlist(Long pgId, int beds) {
+        PG pg = pgRepository.findByIdForUpdate(pgId).orElse(null);
+        if (pg == null) {
+            return 0;
+        }
+        List<WaitlistQueue.Waiter> waiters = waitlistService.claim(pgId, beds);
+        LocalDateTime now = LocalDateTime.now();
+        for (WaitlistQueue.Waiter waiter : waiters) {
+            Booking booking = new Booking();
+            booking.setPg(pg);
+            booking.setUsername(waiter.username());
+            booking.setHoldsBed(true); // the freed bed moves over; the counter is left as it is
+            booking.setBookingDate(now);
+            booking.setStatus(waiter.requestAid() ? BookingStatus.REQUESTING_AID : BookingStatus.PENDING);
+            // Not capacity-checked: the cancelled booking's nights are released after commit
+            pgAvailability.hold(pgId, null, now.toLocalDate(), null);
+
+            Booking saved = bookingRepository.save(booking);
+            waitlistService.promoted(waiter.id(), saved.getId());
+            bookingEventLog.append(BookingEventType.CREATED, saved);
+            eventPublisher.publishEvent(new BookingCreatedEvent(saved.getId(), pgId, waiter.username()));
+        }
+        return waiters.size();
+    }
+
+    // Gives back the calendar occupancy taken by occupy; call before clearing holdsBed
+    private void vacate(Booking booking) {
+        Long pgId = booking.getPg().getId();
+        if (booking.getCheckIn() != null) {
+            pgAvailability.release(pgId, booking.getCheckIn(), booking.getCheckOut());
+        } else if (booking.isHoldsBed()) {
+            pgAvailability.release(pgId, booking.getBookingDate().toLocalDate(), null);
+        }
     }
     
     @Override
-    public List<Booking> getBookingsByStatus(String status) {
-        return bookingRepository.findByStatus(status);
+    public List<BookingSummary> getBookingsByStatus(String status) {
+        return bookingRepository.findSummariesByStatus(BookingStatus.parse(status));
     }
 
     @Override
-    public List<Booking> getBookingsByDonor(String donorUsername) {
+    public AidQueuePage getAidQueue(String cursor, Integer limit, Double minPrice, Double maxPrice, String locality) {
+        BookingCursor after = cursor != null && !cursor.isBlank() ? BookingCursor.decode(cursor) : null;
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String localityKey = locality != null && !locality.isBlank() ? locality.trim().toLowerCase() : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<BookingSummary> rows = bookingRepository.findQueuePage(BookingStatus.REQUESTING_AID,
+                after != null ? after.getBookingDate() : QUEUE_START,
+                after != null ? after.getId() : 0L,
+                minPrice, maxPrice,
+                localityKey, localityKey != null ? PGSpecifications.escapeLike(localityKey) + ",%" : null,
+                PageRequest.of(0, size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            BookingSummary last = rows.get(size - 1);
+            nextCursor = new BookingCursor(last.bookingDate(), last.id()).encode();
+        }
+        return new AidQueuePage(rows, nextCursor);
+    }
+
+    @Override
+    public List<BookingSummary> getBookingsByDonor(String donorUsername) {
         System.out.println("DEBUG: Fetching bookings for donor: " + donorUsername);
-        List<Booking> list = bookingRepository.findByDonorUsername(donorUsername);
+        List<BookingSummary> list = bookingProjections.byDonor(donorUsername);
         System.out.println("DEBUG: Found " + list.size() + " bookings for donor " + donorUsername);
         return list;
     }
@@ -84,8 +254,15 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public Booking approveSponsorship(Long bookingId, String donorUsername, Double percentage) {
         System.out.println("DEBUG: Approving sponsorship. BookingID=" + bookingId + ", Donor=" + donorUsername);
-        Booking booking = bookingRepository.findById(bookingId)
+        if (percentage == null || percentage <= 0 || percentage > 100) {
+            throw new IllegalArgumentException("Sponsorship percentage must be between 0 and 100");
+        }
+        Booking booking = bookingRepository.findWithPgAndDonorById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
+        // Fast path for requests that were already taken; a race past this check fails on the version
+        if (booking.getStatus() != BookingStatus.REQUESTING_AID) {
+            throw new ConflictException("Booking " + bookingId + " is no longer requesting aid");
+        }
         
         com.pgfinder.backendmain.entity.User donor = userRepository.findByUsername(donorUsername)
                 .orElseThrow(() -> new RuntimeException("Donor not found"));
@@ -93,70 +270,168 @@ public class BookingServiceImpl implements BookingService {
         booking.setDonor(donor);
         double contribution = booking.getPg().getPrice() * (percentage / 100.0);
         booking.setDonorContribution(contribution);
-        booking.setStatus("APPROVED_AID"); // Requires user to pay remainder
+        booking.setStatus(BookingStatus.APPROVED_AID); // Requires user to pay remainder
         
-        Booking saved = bookingRepository.save(booking);
+        // Flush now so a concurrent sponsor's version bump surfaces here as a 409
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        bookingEventLog.append(BookingEventType.SPONSORED, saved);
         System.out.println("DEBUG: Sponsorship saved. Donor set to: " + saved.getDonor().getUsername());
         return saved;
     }
 
     @Override
+    @Transactional
     public Booking updateBookingStatus(Long bookingId, String status) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithPgAndDonorById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
-        booking.setStatus(status);
+        BookingStatus newStatus = BookingStatus.parse(status);
+        Long pgId = booking.getPg().getId();
+
+        // Cancelling gives the bed back; reviving a cancelled booking has to win a bed again
+        boolean cancelling = newStatus == BookingStatus.CANCELLED && booking.getStatus() != BookingStatus.CANCELLED;
+        if (booking.getStatus() == BookingStatus.CANCELLED && newStatus != BookingStatus.CANCELLED) {
+            booking.setHoldsBed(occupy(pgId, booking.getCheckIn(), booking.getCheckOut(),
+                    booking.getBookingDate().toLocalDate()));
+        }
+        boolean releaseBed = cancelling && booking.isHoldsBed();
+        if (cancelling) {
+            vacate(booking);
+            booking.setHoldsBed(false);
+        }
+        booking.setStatus(newStatus);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingEventLog.append(BookingEventType.STATUS_CHANGED, savedBooking);
+        if (releaseBed && promoteWaitlist(pgId, 1) == 0) {
+            pgService.releaseBeds(pgId, 1);
+        }
+
+        // Emails go out asynchronously after commit
+        if (newStatus == BookingStatus.CONFIRMED) {
+            eventPublisher.publishEvent(new BookingsConfirmedEvent(List.of(confirmation(booking))));
+        }
 
-        // Send Email if Confirmed
-        if ("CONFIRMED".equalsIgnoreCase(status)) {
+        return savedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusResult> updateBookingStatuses(String ownerUsername, List<BookingStatusUpdate> updates) {
+        if (updates.size() > MAX_BULK_UPDATES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATES + " bookings can be updated at once");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (BookingStatusUpdate update : updates) {
+            if (update.getBookingId() != null) {
+                ids.add(update.getBookingId());
+            }
+        }
+        Map<Long, Booking> bookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllWithPgAndDonorByIdIn(ids)) {
+            bookings.put(booking.getId(), booking);
+        }
+
+        List<BookingStatusResult> results = new ArrayList<>(updates.size());
+        Set<Booking> changed = new LinkedHashSet<>();
+        Map<Long, Integer> releasedBeds = new TreeMap<>(); // PG id order, so concurrent batches lock PG rows alike
+        List<BookingsConfirmedEvent.Confirmation> confirmations = new ArrayList<>();
+        for (BookingStatusUpdate update : updates) {
+            Booking booking = bookings.get(update.getBookingId());
+            // Other owners' bookings are reported exactly like missing ones
+            if (booking == null || !ownerUsername.equals(booking.getPg().getOwnerUsername())) {
+                results.add(BookingStatusResult.failed(update.getBookingId(), "Booking not found"));
+                continue;
+            }
+            BookingStatus newStatus;
             try {
-                com.pgfinder.backendmain.entity.User user = userRepository.findByUsername(booking.getUsername())
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-                
-                String contributionText = "";
-                if (booking.getDonor() != null) {
-                    contributionText = "\nSponsorship Applied: " + booking.getDonor().getUsername() + 
-                                     " contributed " + booking.getDonorContribution() + "\n" +
-                                     "Net Amount Paid: " + (booking.getPg().getPrice() - booking.getDonorContribution());
+                newStatus = BookingStatus.parse(update.getStatus());
+            } catch (IllegalArgumentException e) {
+                results.add(BookingStatusResult.failed(booking.getId(), e.getMessage()));
+                continue;
+            }
+            // Reopening needs a bed reservation that may fail, which would roll back the whole batch
+            if (booking.getStatus() == BookingStatus.CANCELLED && newStatus != BookingStatus.CANCELLED) {
+                results.add(BookingStatusResult.failed(booking.getId(), "Cancelled bookings can only be reopened individually"));
+                continue;
+            }
+            if (newStatus == BookingStatus.CANCELLED && booking.getStatus() != BookingStatus.CANCELLED) {
+                vacate(booking);
+                if (booking.isHoldsBed()) {
+                    booking.setHoldsBed(false);
+                    releasedBeds.merge(booking.getPg().getId(), 1, Integer::sum);
                 }
+            }
+            booking.setStatus(newStatus);
+            changed.add(booking);
+            if (newStatus == BookingStatus.CONFIRMED) {
+                confirmations.add(confirmation(booking));
+            }
+            results.add(BookingStatusResult.applied(booking.getId(), newStatus));
+        }
 
-                String subject = "Booking Confirmed - " + booking.getPg().getName();
-                String message = "Dear " + user.getUsername() + ",\n\n" +
-                        "Your booking for '" + booking.getPg().getName() + "' has been successfully confirmed.\n" +
-                        "Total Rent: " + booking.getPg().getPrice() + 
-                        contributionText + "\n" +
-                        "Address: " + booking.getPg().getAddress() + "\n\n" +
-                        "Thank you for using Area Stay Point!";
-                
-                emailService.sendSimpleMessage(user.getEmail(), subject, message);
-            } catch (Exception e) {
-                System.err.println("Error sending confirmation email: " + e.getMessage());
+        // Dirty bookings go out as JDBC batches (hibernate.jdbc.batch_size); freed beds go to waiters first, then
+        // the counters move once per PG
+        bookingRepository.flush();
+        bookingEventLog.appendAll(BookingEventType.STATUS_CHANGED, changed);
+        releasedBeds.forEach((pgId, beds) -> {
+            int left = beds - promoteWaitlist(pgId, beds);
+            if (left > 0) {
+                pgService.releaseBeds(pgId, left);
             }
+        });
+        if (!confirmations.isEmpty()) {
+            eventPublisher.publishEvent(new BookingsConfirmedEvent(confirmations));
         }
+        return results;
+    }
 
-        return savedBooking;
+    private static BookingsConfirmedEvent.Confirmation confirmation(Booking booking) {
+        return new BookingsConfirmedEvent.Confirmation(booking.getId(), booking.getUsername(),
+                booking.getPg().getName(), booking.getPg().getAddress(), booking.getPg().getPrice(),
+                booking.getDonor() != null ? booking.getDonor().getUsername() : null, booking.getDonorContribution());
     }
 
     @Override
-    public List<Booking> getBookingsByUser(String username) {
-        return bookingRepository.findByUsername(username);
+    public List<BookingSummary> getBookingsByUser(String username) {
+        return bookingProjections.byUser(username);
     }
 
     @Override
-    public List<Booking> getBookingsByOwner(String ownerUsername) {
-        // Find all PGs by owner
-        List<PG> ownerPGs = pgRepository.findByOwnerUsername(ownerUsername);
-        
-        // Find bookings for these PGs
-        List<Booking> allBookings = new ArrayList<>();
-        for (PG pg : ownerPGs) {
-            allBookings.addAll(bookingRepository.findByPgId(pg.getId()));
+    public List<BookingSummary> getBookingsByOwner(String ownerUsername) {
+        return bookingProjections.byOwner(ownerUsername, null);
+    }
+
+    @Override
+    public BookingPageResponse getBookingsByOwner(String ownerUsername, String status, String sort, String direction,
+                                                  int page, int size) {
+        String property = OWNER_SORTS.get(sort != null ? sort : "bookingDate");
+        if (property == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (use one of " + OWNER_SORTS.keySet() + ")");
         }
-        return allBookings;
+        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        BookingStatus statusFilter = status != null && !status.isBlank() ? BookingStatus.parse(status) : null;
+
+        // Paged and sorted in SQL (idx_pgs_owner, then idx_bookings_pg_status_date per PG), so a page
+        // costs the same however many bookings the owner has; the projection would sort them all
+        Page<BookingSummary> result = bookingRepository.findOwnerBookings(ownerUsername, statusFilter,
+                PageRequest.of(Math.max(page, 0), pageSize, Sort.by(dir, property).and(Sort.by(dir, "id"))));
+        return new BookingPageResponse(result.getContent(), result.getTotalElements(), result.getNumber(), pageSize);
     }
 
     @Override
+    @Transactional
     public void deleteBooking(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+        bookingRepository.findById(bookingId).ifPresent(booking -> {
+            Long pgId = booking.getPg().getId();
+            boolean heldBed = booking.isHoldsBed();
+            if (booking.getStatus() != BookingStatus.CANCELLED) {
+                vacate(booking);
+            }
+            bookingEventLog.append(BookingEventType.DELETED, booking);
+            bookingRepository.delete(booking);
+            if (heldBed && promoteWaitlist(pgId, 1) == 0) {
+                pgService.releaseBeds(pgId, 1);
+            }
+        });
     }
 }
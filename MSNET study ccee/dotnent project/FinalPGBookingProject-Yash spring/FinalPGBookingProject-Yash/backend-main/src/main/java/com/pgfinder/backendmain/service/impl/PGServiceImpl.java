@@ -1,28 +1,86 @@
 package com.pgfinder.backendmain.service.impl;
 
+import com.pgfinder.backendmain.config.CacheConfig;
+import com.pgfinder.backendmain.dto.PGListItem;
+import com.pgfinder.backendmain.dto.PGPageResponse;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.dto.PGSearchResponse;
+import com.pgfinder.backendmain.entity.BookingEventType;
 import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.event.PGBedsChangedEvent;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.exception.ConflictException;
+import com.pgfinder.backendmain.exception.ResourceNotFoundException;
 import com.pgfinder.backendmain.repository.PGRepository;
+import com.pgfinder.backendmain.repository.PGSpecifications;
+import com.pgfinder.backendmain.service.BookingEventLog;
+import com.pgfinder.backendmain.service.PGAvailability;
 import com.pgfinder.backendmain.service.PGService;
+import com.pgfinder.backendmain.service.PGCatalog;
+import com.pgfinder.backendmain.service.PGFacetIndex;
+import com.pgfinder.backendmain.service.PGSearchIndex;
+import com.pgfinder.backendmain.util.PGCursor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class PGServiceImpl implements PGService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private PGRepository pgRepository;
     private com.pgfinder.backendmain.repository.BookingRepository bookingRepository;
     private com.pgfinder.backendmain.repository.ReviewRepository reviewRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PGCatalog pgCatalog;
+    private PGSearchIndex pgSearchIndex;
+    private PGFacetIndex pgFacetIndex;
+    private PGAvailability pgAvailability;
+    private BookingEventLog bookingEventLog;
+    private com.pgfinder.backendmain.repository.WaitlistRepository waitlistRepository;
+    private CacheManager cacheManager;
 
-    public PGServiceImpl(PGRepository pgRepository, com.pgfinder.backendmain.repository.BookingRepository bookingRepository, com.pgfinder.backendmain.repository.ReviewRepository reviewRepository) {
+    public PGServiceImpl(PGRepository pgRepository, com.pgfinder.backendmain.repository.BookingRepository bookingRepository, com.pgfinder.backendmain.repository.ReviewRepository reviewRepository,
+                         ApplicationEventPublisher eventPublisher, PGCatalog pgCatalog, PGSearchIndex pgSearchIndex,
+                         PGFacetIndex pgFacetIndex, PGAvailability pgAvailability, BookingEventLog bookingEventLog,
+                         com.pgfinder.backendmain.repository.WaitlistRepository waitlistRepository, CacheManager cacheManager) {
         this.pgRepository = pgRepository;
         this.bookingRepository = bookingRepository;
         this.reviewRepository = reviewRepository;
+        this.eventPublisher = eventPublisher;
+        this.pgCatalog = pgCatalog;
+        this.pgSearchIndex = pgSearchIndex;
+        this.pgFacetIndex = pgFacetIndex;
+        this.pgAvailability = pgAvailability;
+        this.bookingEventLog = bookingEventLog;
+        this.waitlistRepository = waitlistRepository;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Transactional
     public PG createPG(PG pg) {
-        return pgRepository.save(pg);
+        pg.setAvailableBeds(pg.getTotalBeds()); // a new listing starts empty
+        PG saved = pgRepository.saveAndFlush(pg); // flush so the record carries the bumped version
+        evict(CacheConfig.PGS_BY_OWNER, saved.getOwnerUsername());
+        eventPublisher.publishEvent(PGChangedEvent.saved(PGRecord.from(saved)));
+        return saved;
     }
 
     @Override
@@ -31,8 +89,141 @@ public class PGServiceImpl implements PGService {
     }
 
     @Override
-    public List<PG> getPGsByOwner(String ownerUsername) {
-        return pgRepository.findByOwnerUsername(ownerUsername);
+    public PGPageResponse getPGPage(String sort, String cursor, Integer limit) {
+        PGCursor after = cursor != null && !cursor.isBlank() ? PGCursor.decode(cursor) : null;
+        if (sort == null || sort.isBlank()) {
+            sort = after != null ? after.getSort() : PGCursor.SORT_ID;
+        }
+        if (!PGCursor.isSupportedSort(sort)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        if (after != null && !after.getSort().equals(sort)) {
+            throw new IllegalArgumentException("Cursor does not match sort: " + sort);
+        }
+
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        List<PG> rows;
+        switch (sort) {
+            case PGCursor.SORT_PRICE:
+                rows = pgRepository.findPageByPrice(
+                        after != null ? after.getPrice() : -1.0,
+                        after != null ? after.getId() : 0L,
+                        pageable);
+                break;
+            case PGCursor.SORT_NEWEST:
+                rows = pgRepository.findPageByNewest(after != null ? after.getId() : Long.MAX_VALUE, pageable);
+                break;
+            default:
+                rows = pgRepository.findPageById(after != null ? after.getId() : 0L, pageable);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            PG last = rows.get(size - 1);
+            nextCursor = new PGCursor(sort, PGCursor.SORT_PRICE.equals(sort) ? last.getPrice() : null, last.getId()).encode();
+        }
+        return new PGPageResponse(rows, sort, nextCursor);
+    }
+
+    @Override
+    public PGSearchResponse searchPGs(PGSearchCriteria criteria, String sort, int page, int size) {
+        // Same sort keys and the same 400 for unknown ones as the keyset listing (GET /api/pgs)
+        if (sort == null || sort.isBlank()) {
+            sort = PGCursor.SORT_PRICE;
+        }
+        if (!PGCursor.isSupportedSort(sort)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Set<Long> unavailable = unavailableFor(criteria);
+        if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
+            return rankedSearch(criteria, unavailable, Math.max(page, 0), pageSize); // ordered by relevance
+        }
+        Sort order;
+        switch (sort) {
+            case PGCursor.SORT_NEWEST:
+                order = Sort.by(Sort.Direction.DESC, "id");
+                break;
+            case PGCursor.SORT_ID:
+                order = Sort.by(Sort.Direction.ASC, "id");
+                break;
+            default:
+                order = Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+
+        // Filters are pushed into the WHERE clause so (gender, price) / owner indexes can be used
+        Specification<PG> spec = PGSpecifications.matching(criteria);
+        if (!unavailable.isEmpty()) {
+            spec = spec.and(PGSpecifications.idNotIn(unavailable));
+        }
+        Page<PG> result = pgRepository.findAll(spec, PageRequest.of(Math.max(page, 0), pageSize, order));
+        List<PGRecord> items = result.getContent().stream().map(PGRecord::from).toList();
+        return new PGSearchResponse(items, result.getTotalElements(), result.getNumber(), pageSize,
+                pgFacetIndex.facets(criteria, null, unavailable));
+    }
+
+    // PGs with no bed free on some night of the requested stay, from the in-memory availability calendar
+    private Set<Long> unavailableFor(PGSearchCriteria criteria) {
+        if (criteria.getCheckIn() == null && criteria.getCheckOut() == null) {
+            return Set.of();
+        }
+        if (criteria.getCheckIn() == null || criteria.getCheckOut() == null) {
+            throw new IllegalArgumentException("checkIn and checkOut must be given together");
+        }
+        return pgAvailability.unavailable(criteria.getCheckIn(), criteria.getCheckOut());
+    }
+
+    // Free-text path: BM25 ranking from the inverted index, remaining filters applied to catalog records
+    private PGSearchResponse rankedSearch(PGSearchCriteria criteria, Set<Long> unavailable, int page, int pageSize) {
+        long from = (long) page * pageSize;
+        int limit = (int) Math.min(from + pageSize, Integer.MAX_VALUE);
+        PGSearchIndex.Hits hits = pgSearchIndex.search(criteria.getQuery(), limit, id -> {
+            PGRecord pg = pgCatalog.get(id);
+            return pg != null && !unavailable.contains(id) && criteria.matches(pg);
+        });
+        List<PGRecord> items = new ArrayList<>();
+        for (int i = (int) Math.min(from, hits.ids().size()); i < hits.ids().size(); i++) {
+            PGRecord pg = pgCatalog.get(hits.ids().get(i));
+            if (pg != null) {
+                items.add(pg);
+            }
+        }
+        return new PGSearchResponse(items, hits.total(), page, pageSize,
+                pgFacetIndex.facets(criteria, hits.matched(), unavailable));
+    }
+
+    @Override
+    // Cached as immutable records, so callers cannot change what later hits are served
+    @Cacheable(cacheNames = CacheConfig.PGS_BY_OWNER, key = "#ownerUsername")
+    public List<PGRecord> getPGsByOwner(String ownerUsername) {
+        return pgRepository.findByOwnerUsername(ownerUsername).stream().map(PGRecord::from).toList();
+    }
+
+    @Override
+    public List<PGListItem> getPGSummaries() {
+        return toListItems(pgRepository.findListRows());
+    }
+
+    @Override
+    public List<PGListItem> getPGSummariesByOwner(String ownerUsername) {
+        return toListItems(pgRepository.findListRowsByOwner(ownerUsername));
+    }
+
+    // Rows are [id, name, address, price, gender, thumbnail, ratingSum, ratingCount]
+    private List<PGListItem> toListItems(List<Object[]> rows) {
+        List<PGListItem> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            long ratingSum = (Long) row[6];
+            long ratingCount = (Long) row[7];
+            items.add(new PGListItem(id, (String) row[1], (String) row[2], (Double) row[3], (String) row[4], (String) row[5],
+                    ratingCount > 0 ? (double) ratingSum / ratingCount : 0, ratingCount));
+        }
+        return items;
     }
 
     @Override
@@ -41,6 +232,7 @@ public class PGServiceImpl implements PGService {
     }
 
     @Override
+    @Transactional
     public PG updatePG(Long id, PG pgDetails) {
         PG pg = pgRepository.findById(id).orElseThrow(() -> new RuntimeException("PG not found with id: " + id));
         
@@ -55,21 +247,128 @@ public class PGServiceImpl implements PGService {
         if (pgDetails.getVideoUrl() != null) {
             pg.setVideoUrl(pgDetails.getVideoUrl());
         }
+        if (pgDetails.getLatitude() != null && pgDetails.getLongitude() != null) {
+            pg.setLatitude(pgDetails.getLatitude());
+            pg.setLongitude(pgDetails.getLongitude());
+        }
+        if (pgDetails.getTotalBeds() != null) {
+            // Recount from held bookings; a concurrent reservation bumps the version and fails this save
+            long held = bookingRepository.countHeldBeds(id);
+            pg.setTotalBeds(pgDetails.getTotalBeds());
+            pg.setAvailableBeds((int) Math.max(0, pgDetails.getTotalBeds() - held));
+        }
         
-        return pgRepository.save(pg);
+        PG saved = pgRepository.saveAndFlush(pg); // flush so the record carries the bumped version
+        evict(CacheConfig.PGS_BY_OWNER, saved.getOwnerUsername());
+        eventPublisher.publishEvent(PGChangedEvent.saved(PGRecord.from(saved)));
+        return saved;
     }
 
     @Override
-    @org.springframework.transaction.annotation.Transactional
+    @Transactional
     public void deletePG(Long id) {
+        pgRepository.findById(id).ifPresent(pg -> evict(CacheConfig.PGS_BY_OWNER, pg.getOwnerUsername()));
+
         // Delete associated bookings
         List<com.pgfinder.backendmain.entity.Booking> bookings = bookingRepository.findByPgId(id);
+        bookingEventLog.appendAll(BookingEventType.DELETED, bookings);
         bookingRepository.deleteAll(bookings);
+        waitlistRepository.deleteByPgId(id);
 
         // Delete associated reviews
         List<com.pgfinder.backendmain.entity.Review> reviews = reviewRepository.findByPgId(id);
         reviewRepository.deleteAll(reviews);
 
         pgRepository.deleteById(id);
+        eventPublisher.publishEvent(PGChangedEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional
+    public void recordRating(Long pgId, int rating) {
+        // Single UPDATE ... SET x = x + 1, so concurrent reviews never lose increments
+        if (pgRepository.addRating(pgId, rating, LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("PG not found with id: " + pgId);
+        }
+        publishRefreshed(pgId);
+    }
+
+    @Override
+    @Transactional
+    public boolean reconcileRatings(Long pgId) {
+        // Row lock first: a concurrent addRating waits, and the count below sees every committed review
+        PG pg = pgRepository.findByIdForUpdate(pgId).orElse(null);
+        if (pg == null) {
+            return false;
+        }
+        long[] histogram = new long[6];
+        for (Object[] row : reviewRepository.countRatings(pgId)) {
+            int rating = (Integer) row[0];
+            if (rating >= 1 && rating <= 5) {
+                histogram[rating] = (Long) row[1];
+            }
+        }
+        long count = 0;
+        long sum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            count += histogram[rating];
+            sum += rating * histogram[rating];
+        }
+        if (pg.getRatingCount() == count && pg.getRatingSum() == sum
+                && pg.getRating1() == histogram[1] && pg.getRating2() == histogram[2] && pg.getRating3() == histogram[3]
+                && pg.getRating4() == histogram[4] && pg.getRating5() == histogram[5]) {
+            return false;
+        }
+        pgRepository.setRatings(pgId, sum, count, histogram[1], histogram[2], histogram[3], histogram[4], histogram[5],
+                LocalDateTime.now());
+        publishRefreshed(pgId);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean reserveBed(Long pgId) {
+        if (pgRepository.reserveBed(pgId, LocalDateTime.now()) == 1) {
+            publishBedsChanged(pgId);
+            return true;
+        }
+        // Nothing updated: unknown PG, capacity not tracked, or full
+        PG pg = pgRepository.findById(pgId).orElseThrow(() -> new ResourceNotFoundException("PG not found with id: " + pgId));
+        if (pg.getTotalBeds() == null) {
+            return false;
+        }
+        throw new ConflictException("No beds available at " + pg.getName());
+    }
+
+    @Override
+    @Transactional
+    public void releaseBeds(Long pgId, int count) {
+        if (pgRepository.releaseBeds(pgId, count, LocalDateTime.now()) == 1) {
+            publishBedsChanged(pgId);
+        }
+    }
+
+    // After a bulk update: reload the row, drop cached copies and push the new record to the in-memory indexes
+    private void publishRefreshed(Long pgId) {
+        pgRepository.findById(pgId).ifPresent(pg -> {
+            evict(CacheConfig.PGS_BY_OWNER, pg.getOwnerUsername());
+            eventPublisher.publishEvent(PGChangedEvent.saved(PGRecord.from(pg)));
+        });
+    }
+
+    // After a bed UPDATE: only the count, version and timestamp changed, so only the catalog needs to hear about it
+    private void publishBedsChanged(Long pgId) {
+        for (Object[] row : pgRepository.findBedState(pgId)) {
+            evict(CacheConfig.PGS_BY_OWNER, row[0]);
+            eventPublisher.publishEvent(new PGBedsChangedEvent(pgId, (Integer) row[1], (Long) row[2], (LocalDateTime) row[3]));
+        }
+    }
+
+    // The cache manager is transaction-aware: inside a transaction this takes effect after commit
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
     }
 }
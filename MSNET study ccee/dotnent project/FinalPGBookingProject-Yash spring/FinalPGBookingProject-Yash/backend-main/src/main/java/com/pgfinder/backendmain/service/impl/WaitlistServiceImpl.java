@@ -0,0 +1,157 @@
+package com.pgfinder.backendmain.service.impl;
+
+import com.pgfinder.backendmain.dto.WaitlistSummary;
+import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.entity.WaitlistEntry;
+import com.pgfinder.backendmain.entity.WaitlistStatus;
+import com.pgfinder.backendmain.exception.ConflictException;
+import com.pgfinder.backendmain.exception.ResourceNotFoundException;
+import com.pgfinder.backendmain.repository.PGRepository;
+import com.pgfinder.backendmain.repository.WaitlistRepository;
+import com.pgfinder.backendmain.service.WaitlistQueue;
+import com.pgfinder.backendmain.service.WaitlistService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Joins and promotions both run under the PG row lock (SELECT ... FOR UPDATE), so a bed freed while
+// someone joins is never missed: either the join sees the free bed, or the freeing side sees the waiter.
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final PGRepository pgRepository;
+    private final WaitlistQueue waitlistQueue;
+
+    public WaitlistServiceImpl(WaitlistRepository waitlistRepository, PGRepository pgRepository,
+                               WaitlistQueue waitlistQueue) {
+        this.waitlistRepository = waitlistRepository;
+        this.pgRepository = pgRepository;
+        this.waitlistQueue = waitlistQueue;
+    }
+
+    @Override
+    @Transactional
+    public WaitlistSummary join(Long pgId, String username, boolean requestAid) {
+        PG pg = pgRepository.findByIdForUpdate(pgId)
+                .orElseThrow(() -> new ResourceNotFoundException("PG not found with id: " + pgId));
+        if (pg.getTotalBeds() == null || pg.getAvailableBeds() == null || pg.getAvailableBeds() > 0) {
+            throw new ConflictException(pg.getName() + " has beds available; book directly");
+        }
+        if (waitlistRepository.existsByPgIdAndUsernameAndStatus(pgId, username, WaitlistStatus.WAITING)) {
+            throw new ConflictException("Already on the waitlist for " + pg.getName());
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPg(pg);
+        entry.setUsername(username);
+        entry.setRequestAid(requestAid);
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setJoinedAt(LocalDateTime.now());
+        WaitlistEntry saved = waitlistRepository.save(entry);
+
+        // Queued right away: promoters need the PG lock we hold until commit, so none can see the
+        // entry early; a rollback discards it again
+        Long entryId = saved.getId();
+        waitlistQueue.add(pgId, new WaitlistQueue.Waiter(entryId, username, requestAid));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    waitlistQueue.discard(pgId, entryId);
+                }
+            }
+        });
+        return new WaitlistSummary(entryId, pgId, pg.getName(), WaitlistStatus.WAITING,
+                waitlistQueue.position(pgId, entryId), saved.getJoinedAt(), null);
+    }
+
+    @Override
+    @Transactional
+    public void leave(Long entryId, String username) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .filter(e -> e.getUsername().equals(username))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id: " + entryId));
+        if (waitlistRepository.leave(entryId, username) == 0) {
+            throw new ConflictException("Waitlist entry " + entryId + " is no longer waiting");
+        }
+        Long pgId = entry.getPg().getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waitlistQueue.discard(pgId, entryId);
+            }
+        });
+    }
+
+    @Override
+    public List<WaitlistSummary> getWaitlistByUser(String username) {
+        List<WaitlistSummary> result = new ArrayList<>();
+        for (WaitlistEntry entry : waitlistRepository.findByUsernameOrderByIdDesc(username)) {
+            Long pgId = entry.getPg().getId();
+            Integer position = entry.getStatus() == WaitlistStatus.WAITING
+                    ? waitlistQueue.position(pgId, entry.getId()) : null;
+            result.add(new WaitlistSummary(entry.getId(), pgId, entry.getPg().getName(), entry.getStatus(),
+                    position, entry.getJoinedAt(), entry.getBookingId()));
+        }
+        return result;
+    }
+
+    // Marks up to count of the oldest waiters PROMOTED and returns them; the caller holds the PG row
+    // lock and creates their bookings in the same transaction. Each candidate costs one conditional
+    // UPDATE; stale ones (left or promoted elsewhere) are dropped. On rollback they go back to the head.
+    // The queue is only a cache of the table: once it runs dry, the oldest WAITING rows are read from
+    // the table before the caller gives the beds back to the counter.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<WaitlistQueue.Waiter> claim(Long pgId, int count) {
+        List<WaitlistQueue.Waiter> claimed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        while (claimed.size() < count) {
+            WaitlistQueue.Waiter waiter = waitlistQueue.poll(pgId);
+            if (waiter == null) {
+                break;
+            }
+            if (waitlistRepository.promote(waiter.id(), now) == 1) {
+                claimed.add(waiter);
+            }
+        }
+        while (claimed.size() < count) {
+            // Rows promoted above are no longer WAITING, so each pass only sees unclaimed entries
+            List<Object[]> rows = waitlistRepository.findOldestWaiting(pgId, PageRequest.of(0, count - claimed.size()));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                WaitlistQueue.Waiter waiter = new WaitlistQueue.Waiter((Long) row[0], (String) row[1], (Boolean) row[2]);
+                if (waitlistRepository.promote(waiter.id(), now) == 1) {
+                    claimed.add(waiter);
+                }
+            }
+        }
+        if (!claimed.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        waitlistQueue.restore(pgId, claimed);
+                    }
+                }
+            });
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void promoted(Long entryId, Long bookingId) {
+        waitlistRepository.setBooking(entryId, bookingId);
+    }
+}
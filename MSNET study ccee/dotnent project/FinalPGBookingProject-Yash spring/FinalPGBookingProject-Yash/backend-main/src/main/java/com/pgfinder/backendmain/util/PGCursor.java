@@ -0,0 +1,54 @@
+package com.pgfinder.backendmain.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for keyset pagination of PGs.
+// Encodes the sort key and the last (price, id) seen so the next page seeks past it.
+public class PGCursor {
+
+    public static final String SORT_PRICE = "price";
+    public static final String SORT_ID = "id";
+    public static final String SORT_NEWEST = "newest";
+
+    private final String sort;
+    private final Double price;
+    private final Long id;
+
+    public PGCursor(String sort, Double price, Long id) {
+        this.sort = sort;
+        this.price = price;
+        this.id = id;
+    }
+
+    public String getSort() { return sort; }
+    public Double getPrice() { return price; }
+    public Long getId() { return id; }
+
+    public static boolean isSupportedSort(String sort) {
+        return SORT_PRICE.equals(sort) || SORT_ID.equals(sort) || SORT_NEWEST.equals(sort);
+    }
+
+    public String encode() {
+        String raw = sort + ":" + (price != null ? price : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PGCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !isSupportedSort(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Double price = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            if (SORT_PRICE.equals(parts[0]) && price == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PGCursor(parts[0], price, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and bad Base64 input
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
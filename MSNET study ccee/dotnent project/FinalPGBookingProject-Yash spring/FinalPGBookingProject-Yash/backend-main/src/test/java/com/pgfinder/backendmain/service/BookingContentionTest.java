@@ -0,0 +1,109 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.exception.ConflictException;
+import com.pgfinder.backendmain.repository.BookingRepository;
+import com.pgfinder.backendmain.repository.PGRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many users racing for the last beds of one PG: exactly totalBeds bookings succeed, everyone else gets a 409
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingContentionTest {
+
+    private static final int BEDS = 10;
+    private static final int REQUESTS = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PGService pgService;
+
+    @Autowired
+    private PGRepository pgRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long pgId;
+
+    @AfterEach
+    void cleanUp() {
+        if (pgId != null) {
+            pgService.deletePG(pgId);
+        }
+    }
+
+    @Test
+    void concurrentBookingsNeverOversellBeds() throws Exception {
+        PG pg = new PG();
+        pg.setName("Contention PG");
+        pg.setAddress("Kothrud, Pune");
+        pg.setPrice(7000.0);
+        pg.setOwnerUsername("contention_owner");
+        pg.setGender("Co-ed");
+        pg.setTotalBeds(BEDS);
+        pgId = pgService.createPG(pg).getId();
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                String username = "contender" + i;
+                boolean shortOverload = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        // Both entry points must run the reservation and the event log in one transaction
+                        if (shortOverload) {
+                            bookingService.createBooking(pgId, username);
+                        } else {
+                            bookingService.createBooking(pgId, username, null, false);
+                        }
+                        booked.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        synchronized (unexpected) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked.get()).isEqualTo(BEDS);
+        assertThat(conflicts.get()).isEqualTo(REQUESTS - BEDS);
+        assertThat(pgRepository.findById(pgId).orElseThrow().getAvailableBeds()).isEqualTo(0);
+        assertThat(bookingRepository.countHeldBeds(pgId)).isEqualTo((long) BEDS);
+    }
+}
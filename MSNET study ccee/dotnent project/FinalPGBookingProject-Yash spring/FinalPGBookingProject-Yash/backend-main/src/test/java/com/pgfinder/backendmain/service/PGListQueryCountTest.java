@@ -0,0 +1,95 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGListItem;
+import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.repository.PGRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list views must cost the same number of SQL statements however many PGs (and images) there are
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PGListQueryCountTest {
+
+    private static final String OWNER = "query_count_owner";
+
+    @Autowired
+    private PGService pgService;
+
+    @Autowired
+    private PGRepository pgRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<PG> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        pgRepository.deleteAll(created);
+        created.clear();
+    }
+
+    @Test
+    void listViewsUseOneStatementRegardlessOfPGCount() {
+        seed(5);
+        long small = statementsFor(() -> pgService.getPGSummaries());
+        long smallByOwner = statementsFor(() -> pgService.getPGSummariesByOwner(OWNER));
+
+        seed(45);
+        long large = statementsFor(() -> pgService.getPGSummaries());
+        long largeByOwner = statementsFor(() -> pgService.getPGSummariesByOwner(OWNER));
+
+        assertThat(small).isEqualTo(1L);
+        assertThat(large).isEqualTo(small);
+        assertThat(smallByOwner).isEqualTo(1L);
+        assertThat(largeByOwner).isEqualTo(smallByOwner);
+    }
+
+    @Test
+    void thumbnailIsTheFirstUploadedImageAndEachPGIsListedOnce() {
+        seed(3);
+        List<PGListItem> items = pgService.getPGSummariesByOwner(OWNER);
+
+        assertThat(items).hasSize(3);
+        for (PGListItem item : items) {
+            assertThat(item.thumbnailUrl()).isEqualTo("https://img.example/c-" + item.name() + ".jpg");
+        }
+    }
+
+    private long statementsFor(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int count) {
+        List<PG> pgs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = "QC PG " + (created.size() + i);
+            PG pg = new PG();
+            pg.setName(name);
+            pg.setAddress("Baner, Pune");
+            pg.setPrice(6000.0 + i);
+            pg.setOwnerUsername(OWNER);
+            pg.setGender("Co-ed");
+            // Uploaded out of alphabetical order, so the smallest URL is not the thumbnail
+            pg.setImageUrls(new ArrayList<>(List.of("https://img.example/c-" + name + ".jpg",
+                    "https://img.example/a-" + name + ".jpg", "https://img.example/b-" + name + ".jpg")));
+            pgs.add(pg);
+        }
+        created.addAll(pgRepository.saveAll(pgs));
+    }
+}
@@ -0,0 +1,118 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGSearchCriteria;
+import com.pgfinder.backendmain.dto.PGSearchResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of GET /api/pgs/search filters (the database path) over 100k PGs.
+// Slow to seed, so it only runs on request: mvn test -Dbenchmark=true -Dtest=PGSearchBenchmarkTest
+// Runs against the test profile's database; point spring.datasource.* at MySQL for production numbers.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PGSearchBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int RUNS = 200;
+    private static final String OWNER_PREFIX = "bench_owner_";
+    private static final String[] GENDERS = {"Boys", "Girls", "Co-ed"};
+    private static final String[] LOCALITIES = {"Kothrud", "Baner", "Viman Nagar", "Hinjewadi", "Wakad", "Aundh"};
+
+    @Autowired
+    private PGService pgService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{"Bench PG " + i, LOCALITIES[i % LOCALITIES.length] + ", Pune",
+                    4000.0 + (i * 37 % 26000), "Benchmark listing", OWNER_PREFIX + (i % 500),
+                    GENDERS[i % GENDERS.length], now});
+            if (batch.size() == 1000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM pgs WHERE owner_username LIKE ?", OWNER_PREFIX + "%");
+    }
+
+    @Test
+    void filteredSearchLatencyAt100kRows() {
+        PGSearchCriteria genderAndPrice = new PGSearchCriteria();
+        genderAndPrice.setGender("Girls");
+        genderAndPrice.setMinPrice(8000.0);
+        genderAndPrice.setMaxPrice(9000.0);
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pgs WHERE gender = 'Girls' "
+                + "AND price BETWEEN 8000 AND 9000", Long.class);
+        assertThat(measure("gender + price range", () -> pgService.searchPGs(genderAndPrice, "price", 0, 20)).getTotal())
+                .isEqualTo(expected);
+
+        PGSearchCriteria priceOnly = new PGSearchCriteria();
+        priceOnly.setMinPrice(29000.0);
+        expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pgs WHERE price >= 29000", Long.class);
+        assertThat(measure("price floor", () -> pgService.searchPGs(priceOnly, "price", 0, 20)).getTotal())
+                .isEqualTo(expected);
+
+        PGSearchCriteria owner = new PGSearchCriteria();
+        owner.setOwner(OWNER_PREFIX + "42");
+        assertThat(measure("owner", () -> pgService.searchPGs(owner, "newest", 0, 20)).getTotal())
+                .isEqualTo(ROWS / 500);
+
+        // Substring match cannot use an index; reported for comparison
+        PGSearchCriteria address = new PGSearchCriteria();
+        address.setAddress("viman");
+        expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pgs WHERE LOWER(address) LIKE '%viman%'", Long.class);
+        assertThat(measure("address substring", () -> pgService.searchPGs(address, "price", 0, 20)).getTotal())
+                .isEqualTo(expected);
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO pgs (name, address, price, description, owner_username, gender, "
+                + "rating_sum, rating_count, rating1, rating2, rating3, rating4, rating5, version, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0, ?)", rows);
+    }
+
+    private PGSearchResponse measure(String name, Supplier<PGSearchResponse> search) {
+        for (int i = 0; i < 20; i++) {
+            search.get(); // warm-up
+        }
+        long[] nanos = new long[RUNS];
+        PGSearchResponse last = null;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            last = search.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-20s rows=%d matches=%d p50=%.2fms p95=%.2fms max=%.2fms%n", name, ROWS,
+                last.getTotal(), nanos[RUNS / 2] / 1e6, nanos[RUNS * 95 / 100] / 1e6, nanos[RUNS - 1] / 1e6);
+        return last;
+    }
+}
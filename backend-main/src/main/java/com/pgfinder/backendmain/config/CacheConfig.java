@@ -0,0 +1,31 @@
+package com.pgfinder.backendmain.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PGS_BY_OWNER = "pgsByOwner";
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.registerCustomCache(PGS_BY_OWNER, Caffeine.newBuilder()
+                .maximumSize(2_000)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .recordStats()
+                .build());
+        // Evictions issued inside a transaction are applied after commit, so a concurrent
+        // read cannot re-cache the old row between the evict and the commit
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,22 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AidQueuePage {
+    private List<BookingSummary> items;
+    private String nextCursor; // null when the queue is exhausted
+
+    public List<BookingSummary> getItems() { return items; }
+    public void setItems(List<BookingSummary> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
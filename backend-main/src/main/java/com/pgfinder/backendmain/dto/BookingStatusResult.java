@@ -0,0 +1,15 @@
+package com.pgfinder.backendmain.dto;
+
+import com.pgfinder.backendmain.entity.BookingStatus;
+
+// Outcome of one bulk status change item; error is null when it was applied
+public record BookingStatusResult(Long bookingId, boolean updated, BookingStatus status, String error) {
+
+    public static BookingStatusResult applied(Long bookingId, BookingStatus status) {
+        return new BookingStatusResult(bookingId, true, status, null);
+    }
+
+    public static BookingStatusResult failed(Long bookingId, String error) {
+        return new BookingStatusResult(bookingId, false, null, error);
+    }
+}
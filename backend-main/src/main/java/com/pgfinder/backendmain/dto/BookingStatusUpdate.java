@@ -0,0 +1,21 @@
+package com.pgfinder.backendmain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One item of a bulk status change request
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusUpdate {
+    private Long bookingId;
+    private String status;
+
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
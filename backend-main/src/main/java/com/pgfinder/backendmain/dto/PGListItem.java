@@ -0,0 +1,6 @@
+package com.pgfinder.backendmain.dto;
+
+// Lightweight row for PG list views; the full PG (all images, description, video) is only loaded for detail
+public record PGListItem(Long id, String name, String address, Double price, String gender, String thumbnailUrl,
+                         double averageRating, long ratingCount) {
+}
@@ -0,0 +1,4 @@
+package com.pgfinder.backendmain.dto;
+
+public record PGNearbyResult(PGRecord pg, double distanceKm) {
+}
@@ -0,0 +1,26 @@
+package com.pgfinder.backendmain.dto;
+
+import com.pgfinder.backendmain.entity.PG;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PGPageResponse {
+    private List<PG> items;
+    private String sort;
+    private String nextCursor; // null when there are no more pages
+
+    public List<PG> getItems() { return items; }
+    public void setItems(List<PG> items) { this.items = items; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,5 @@
+package com.pgfinder.backendmain.dto;
+
+// distance is in feature space (smaller is more similar), not kilometres
+public record SimilarPG(PGRecord pg, double distance) {
+}
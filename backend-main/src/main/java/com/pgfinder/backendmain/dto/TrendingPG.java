@@ -0,0 +1,5 @@
+package com.pgfinder.backendmain.dto;
+
+// score is the decayed activity as of the request: a booking counts 3, a review 1, halving every 3 days
+public record TrendingPG(PGRecord pg, double score) {
+}
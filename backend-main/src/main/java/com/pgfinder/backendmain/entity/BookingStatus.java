@@ -0,0 +1,21 @@
+package com.pgfinder.backendmain.entity;
+
+public enum BookingStatus {
+    PENDING,
+    REQUESTING_AID, // listed for donors to sponsor
+    APPROVED_AID,   // a donor has sponsored it; user pays the remainder
+    CONFIRMED,
+    CANCELLED;      // by the user or the owner; an owner rejecting a booking cancels it
+
+    // Lenient parse for request payloads ("confirmed" -> CONFIRMED)
+    public static BookingStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Booking status is required");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.pgfinder.backendmain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The request is valid but clashes with the current state (e.g. no beds left)
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message){
+        super(message);
+    }
+}
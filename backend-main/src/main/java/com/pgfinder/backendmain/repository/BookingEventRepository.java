@@ -0,0 +1,13 @@
+package com.pgfinder.backendmain.repository;
+
+import com.pgfinder.backendmain.entity.BookingEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    // Keyset page of the log in append order, for replay
+    List<BookingEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
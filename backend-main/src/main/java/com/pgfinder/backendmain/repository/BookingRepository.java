@@ -1,13 +1,83 @@
 package com.pgfinder.backendmain.repository;
 
+import com.pgfinder.backendmain.dto.BookingSummary;
 import com.pgfinder.backendmain.entity.Booking;
+import com.pgfinder.backendmain.entity.BookingStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByUsername(String username);
+    String SUMMARY_SELECT = "SELECT new com.pgfinder.backendmain.dto.BookingSummary("
+            + "b.id, b.username, b.bookingDate, b.checkIn, b.checkOut, b.status, b.donorContribution, d.username, "
+            + "p.id, p.name, p.address, p.price) "
+            + "FROM Booking b JOIN b.pg p LEFT JOIN b.donor d ";
+
     List<Booking> findByPgId(Long pgId);
-    List<Booking> findByStatus(String status);
-    List<Booking> findByDonorUsername(String donorUsername);
+
+    // Write paths that read the PG price/name and the donor load both in the same select
+    @EntityGraph(attributePaths = {"pg", "donor"})
+    Optional<Booking> findWithPgAndDonorById(Long id);
+
+    @EntityGraph(attributePaths = {"pg", "donor"})
+    List<Booking> findAllWithPgAndDonorByIdIn(Collection<Long> ids);
+
+    // Owner dashboard page; status is optional (null = any)
+    @Query(value = SUMMARY_SELECT + "WHERE p.ownerUsername = :owner AND (:status IS NULL OR b.status = :status)",
+            countQuery = "SELECT COUNT(b) FROM Booking b JOIN b.pg p "
+                    + "WHERE p.ownerUsername = :owner AND (:status IS NULL OR b.status = :status)")
+    Page<BookingSummary> findOwnerBookings(@Param("owner") String ownerUsername, @Param("status") BookingStatus status,
+                                           Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status ORDER BY b.bookingDate ASC, b.id ASC")
+    List<BookingSummary> findSummariesByStatus(@Param("status") BookingStatus status);
+
+    // Keyset page of one status, oldest first, seeking past (afterDate, afterId) on the
+    // (status, booking_date, id) index. Price and locality filters are optional (null = any);
+    // localityPrefix is the escaped LIKE pattern "locality,%"
+    @Query(SUMMARY_SELECT + "WHERE b.status = :status "
+            + "AND (b.bookingDate > :afterDate OR (b.bookingDate = :afterDate AND b.id > :afterId)) "
+            + "AND (:minPrice IS NULL OR p.price >= :minPrice) "
+            + "AND (:maxPrice IS NULL OR p.price <= :maxPrice) "
+            + "AND (:locality IS NULL OR TRIM(LOWER(p.address)) = :locality "
+            + "OR LOWER(p.address) LIKE :localityPrefix ESCAPE '\\') "
+            + "ORDER BY b.bookingDate ASC, b.id ASC")
+    List<BookingSummary> findQueuePage(@Param("status") BookingStatus status,
+                                       @Param("afterDate") LocalDateTime afterDate, @Param("afterId") Long afterId,
+                                       @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                                       @Param("locality") String locality, @Param("localityPrefix") String localityPrefix,
+                                       Pageable pageable);
+
+    // Keyset page of bookings written before the event log existed, to seed it with one IMPORTED event each
+    @EntityGraph(attributePaths = {"pg", "donor"})
+    @Query("SELECT b FROM Booking b WHERE b.id > :afterId AND NOT EXISTS "
+            + "(SELECT e.id FROM BookingEvent e WHERE e.bookingId = b.id) ORDER BY b.id")
+    List<Booking> findWithoutEvents(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.pg.id = :pgId AND b.holdsBed = true")
+    long countHeldBeds(@Param("pgId") Long pgId);
+
+    // Rows of [pgId, checkIn, checkOut, bookingDate] for bookings occupying beds: every non-cancelled
+    // dated stay, and open-ended bookings holding a bed
+    @Query("SELECT b.pg.id, b.checkIn, b.checkOut, b.bookingDate FROM Booking b "
+            + "WHERE b.status <> com.pgfinder.backendmain.entity.BookingStatus.CANCELLED "
+            + "AND (b.checkIn IS NOT NULL OR b.holdsBed = true)")
+    List<Object[]> findActiveStays();
+
+    // Rows of [pgId, bookingCount], cancelled bookings excluded
+    @Query("SELECT b.pg.id, COUNT(b) FROM Booking b "
+            + "WHERE b.status <> com.pgfinder.backendmain.entity.BookingStatus.CANCELLED GROUP BY b.pg.id")
+    List<Object[]> countBookingsByPg();
+
+    // Rows of [pgId, bookingDate] for bookings made since the given time
+    @Query("SELECT b.pg.id, b.bookingDate FROM Booking b WHERE b.bookingDate >= :since")
+    List<Object[]> findBookingTimesSince(@Param("since") LocalDateTime since);
 }
@@ -2,8 +2,24 @@ package com.pgfinder.backendmain.repository;
 
 import com.pgfinder.backendmain.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByPgId(Long pgId);
+
+    // Rows of [pgId, rating, reviewCount]
+    @Query("SELECT r.pg.id, r.rating, COUNT(r) FROM Review r GROUP BY r.pg.id, r.rating")
+    List<Object[]> countRatingsByPg();
+
+    // Rows of [rating, reviewCount] for one PG
+    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.pg.id = :pgId GROUP BY r.rating")
+    List<Object[]> countRatings(@Param("pgId") Long pgId);
+
+    // Rows of [pgId, createdAt] for reviews written since the given time
+    @Query("SELECT r.pg.id, r.createdAt FROM Review r WHERE r.createdAt >= :since")
+    List<Object[]> findReviewTimesSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,54 @@
+package com.pgfinder.backendmain.repository;
+
+import com.pgfinder.backendmain.entity.WaitlistEntry;
+import com.pgfinder.backendmain.entity.WaitlistStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Rows of [id, pgId, username, requestAid] for every waiting entry in queue order, to load the in-memory queues
+    @Query("SELECT w.id, w.pg.id, w.username, w.requestAid FROM WaitlistEntry w "
+            + "WHERE w.status = com.pgfinder.backendmain.entity.WaitlistStatus.WAITING ORDER BY w.id ASC")
+    List<Object[]> findWaitingRows();
+
+    // Rows of [id, username, requestAid] for a PG's oldest waiting entries (idx_waitlist_pg_status), for when
+    // the in-memory queue has nobody left but the table still does
+    @Query("SELECT w.id, w.username, w.requestAid FROM WaitlistEntry w WHERE w.pg.id = :pgId "
+            + "AND w.status = com.pgfinder.backendmain.entity.WaitlistStatus.WAITING ORDER BY w.id ASC")
+    List<Object[]> findOldestWaiting(@Param("pgId") Long pgId, Pageable pageable);
+
+    boolean existsByPgIdAndUsernameAndStatus(Long pgId, String username, WaitlistStatus status);
+
+    @EntityGraph(attributePaths = {"pg"})
+    List<WaitlistEntry> findByUsernameOrderByIdDesc(String username);
+
+    // Claims a waiting entry; 0 when it was already promoted or left, so an entry is promoted at most once
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.pgfinder.backendmain.entity.WaitlistStatus.PROMOTED, "
+            + "w.promotedAt = :now WHERE w.id = :id "
+            + "AND w.status = com.pgfinder.backendmain.entity.WaitlistStatus.WAITING")
+    int promote(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.bookingId = :bookingId WHERE w.id = :id")
+    int setBooking(@Param("id") Long id, @Param("bookingId") Long bookingId);
+
+    // Withdraws the user's own waiting entry; 0 when it is not theirs or no longer waiting
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.pgfinder.backendmain.entity.WaitlistStatus.LEFT "
+            + "WHERE w.id = :id AND w.username = :username "
+            + "AND w.status = com.pgfinder.backendmain.entity.WaitlistStatus.WAITING")
+    int leave(@Param("id") Long id, @Param("username") String username);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.pg.id = :pgId")
+    int deleteByPgId(@Param("pgId") Long pgId);
+}
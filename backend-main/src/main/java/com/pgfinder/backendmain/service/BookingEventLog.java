@@ -0,0 +1,97 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.entity.Booking;
+import com.pgfinder.backendmain.entity.BookingEvent;
+import com.pgfinder.backendmain.entity.BookingEventType;
+import com.pgfinder.backendmain.event.BookingEventsAppended;
+import com.pgfinder.backendmain.repository.BookingEventRepository;
+import com.pgfinder.backendmain.repository.BookingRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Append-only log of booking state changes (booking_events). Writers append in the same transaction
+// as the booking change, so the log commits or rolls back with it; BookingProjections is fed from here.
+@Service
+public class BookingEventLog {
+
+    private static final int REPLAY_BATCH = 1000;
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookingEventLog(BookingEventRepository bookingEventRepository, BookingRepository bookingRepository,
+                           ApplicationEventPublisher eventPublisher) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Records the bookings' current state; call after the change has been applied to the entities
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(BookingEventType type, Booking booking) {
+        appendAll(type, List.of(booking));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(BookingEventType type, Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<BookingEvent> events = write(type, bookings);
+        eventPublisher.publishEvent(new BookingEventsAppended(events));
+    }
+
+    // Seeds the log with bookings that predate it; they are picked up by the following replay.
+    // Keyset batches like replay: each batch is read and saved in its own short transaction, so memory
+    // stays bounded and an interrupted backfill resumes where it stopped on the next start
+    public int backfill() {
+        int count = 0;
+        long lastId = 0;
+        List<Booking> batch;
+        do {
+            batch = bookingRepository.findWithoutEvents(lastId, PageRequest.of(0, REPLAY_BATCH));
+            if (batch.isEmpty()) {
+                break;
+            }
+            write(BookingEventType.IMPORTED, batch);
+            lastId = batch.get(batch.size() - 1).getId();
+            count += batch.size();
+        } while (batch.size() == REPLAY_BATCH);
+        return count;
+    }
+
+    // Feeds every event to the consumer in log order, one keyset batch at a time; returns the count
+    public long replay(Consumer<BookingEvent> consumer) {
+        long count = 0;
+        long lastId = 0;
+        List<BookingEvent> batch;
+        do {
+            batch = bookingEventRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REPLAY_BATCH));
+            for (BookingEvent event : batch) {
+                consumer.accept(event);
+                lastId = event.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == REPLAY_BATCH);
+        return count;
+    }
+
+    private List<BookingEvent> write(BookingEventType type, Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            events.add(BookingEvent.of(type, booking, now));
+        }
+        return bookingEventRepository.saveAll(events);
+    }
+}
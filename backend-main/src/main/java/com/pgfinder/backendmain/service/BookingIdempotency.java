@@ -0,0 +1,92 @@
+package com.pgfinder.backendmain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pgfinder.backendmain.dto.BookingSummary;
+import com.pgfinder.backendmain.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Dedup store for the Idempotency-Key header on booking creation. Keys are scoped per user.
+// The first request for a key runs; concurrent duplicates wait on its future and later repeats
+// replay its result, so retries collapse into a single insert. Bounded and TTL-evicted;
+// a failed attempt is forgotten so the client can retry with the same key.
+@Service
+public class BookingIdempotency {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final Duration maxWait;
+
+    public BookingIdempotency(@Value("${app.idempotency.max-keys:100000}") long maxKeys,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${app.idempotency.max-wait-seconds:30}") long maxWaitSeconds) {
+        this.maxWait = Duration.ofSeconds(maxWaitSeconds);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    // fingerprint identifies the request (pg, donor, aid flag, stay dates); reusing a key for a different one is rejected
+    public Outcome execute(String username, String key, String fingerprint, Supplier<BookingSummary> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = username + "\u0000" + key;
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scopedKey, mine);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different booking request");
+            }
+            return new Outcome(await(existing.result), true);
+        }
+
+        try {
+            BookingSummary booking = action.get();
+            mine.result.complete(booking);
+            return new Outcome(booking, false);
+        } catch (Throwable e) {
+            // Waiting duplicates see the same failure; Errors too, or they would wait forever
+            entries.asMap().remove(scopedKey, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Bounded, so a stuck first attempt cannot pin duplicate requests' threads; they get a 409 and may retry
+    private BookingSummary await(CompletableFuture<BookingSummary> result) {
+        try {
+            return result.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still in progress; retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the request with this Idempotency-Key");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    public record Outcome(BookingSummary booking, boolean replayed) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<BookingSummary> result) {
+    }
+}
@@ -1,17 +1,28 @@
 package com.pgfinder.backendmain.service;
 
+import com.pgfinder.backendmain.dto.AidQueuePage;
+import com.pgfinder.backendmain.dto.BookingPageResponse;
+import com.pgfinder.backendmain.dto.BookingStatusResult;
+import com.pgfinder.backendmain.dto.BookingStatusUpdate;
+import com.pgfinder.backendmain.dto.BookingSummary;
 import com.pgfinder.backendmain.entity.Booking;
+
+import java.time.LocalDate;
 import java.util.List;
 
 public interface BookingService {
     Booking createBooking(Long pgId, String username);
     Booking createBooking(Long pgId, String username, Long donorId);
     Booking createBooking(Long pgId, String username, Long donorId, boolean requestAid);
-    List<Booking> getBookingsByUser(String username);
-    List<Booking> getBookingsByOwner(String ownerUsername);
-    List<Booking> getBookingsByStatus(String status);
-    List<Booking> getBookingsByDonor(String donorUsername);
+    Booking createBooking(Long pgId, String username, Long donorId, boolean requestAid, LocalDate checkIn, LocalDate checkOut);
+    List<BookingSummary> getBookingsByUser(String username);
+    List<BookingSummary> getBookingsByOwner(String ownerUsername);
+    BookingPageResponse getBookingsByOwner(String ownerUsername, String status, String sort, String direction, int page, int size);
+    List<BookingSummary> getBookingsByStatus(String status);
+    AidQueuePage getAidQueue(String cursor, Integer limit, Double minPrice, Double maxPrice, String locality);
+    List<BookingSummary> getBookingsByDonor(String donorUsername);
     Booking updateBookingStatus(Long bookingId, String status);
+    List<BookingStatusResult> updateBookingStatuses(String ownerUsername, List<BookingStatusUpdate> updates);
     Booking approveSponsorship(Long bookingId, String donorUsername, Double percentage);
     void deleteBooking(Long bookingId);
 }
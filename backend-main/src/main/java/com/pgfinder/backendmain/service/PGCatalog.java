@@ -0,0 +1,159 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.event.PGBedsChangedEvent;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.repository.PGRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// Read-optimized, in-memory copy of every PG.
+// Readers take the current snapshot from a volatile field (no locks, no DB round-trip);
+// writers build a new snapshot copy-on-write after the PG change has committed.
+@Service
+@DependsOn("PGImagePositions")
+public class PGCatalog {
+
+    private final PGRepository pgRepository;
+
+    // Distinguishes catalog ETags across restarts, since generations restart at zero
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new PGRecord[0], 0, System.currentTimeMillis());
+
+    public PGCatalog(PGRepository pgRepository) {
+        this.pgRepository = pgRepository;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        PGRecord[] records = pgRepository.findAll().stream()
+                .map(PGRecord::from)
+                .sorted(Comparator.comparing(PGRecord::id))
+                .toArray(PGRecord[]::new);
+        long[] ids = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            ids[i] = records[i].id();
+        }
+        long lastModified = Arrays.stream(records).mapToLong(PGRecord::lastModifiedMillis).max().orElse(-1);
+        snapshot = new Snapshot(ids, records, snapshot.generation + 1,
+                lastModified > 0 ? lastModified : System.currentTimeMillis());
+        System.out.println("PG catalog loaded with " + records.length + " PGs.");
+    }
+
+    public List<PGRecord> all() {
+        return snapshot.view;
+    }
+
+    // The full list together with validators taken from the same snapshot, for conditional GETs
+    public Listing listing() {
+        Snapshot current = snapshot;
+        return new Listing(current.view, "\"catalog-" + bootId + "-" + current.generation + "\"", current.lastModified);
+    }
+
+    public PGRecord get(Long id) {
+        Snapshot current = snapshot;
+        int idx = Arrays.binarySearch(current.ids, id);
+        return idx >= 0 ? current.records[idx] : null;
+    }
+
+    public int size() {
+        return snapshot.ids.length;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getPgId());
+        } else {
+            put(event.getPg());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBedsChanged(PGBedsChangedEvent event) {
+        updateBeds(event);
+    }
+
+    private synchronized void put(PGRecord record) {
+        Snapshot current = snapshot;
+        int idx = Arrays.binarySearch(current.ids, record.id());
+        if (idx >= 0) {
+            // AFTER_COMMIT listeners of concurrent transactions can run out of order; never go back a version
+            if (current.records[idx].version() > record.version()) {
+                return;
+            }
+            replace(current, idx, record);
+            return;
+        }
+        int insertAt = -idx - 1;
+        int n = current.ids.length;
+        long[] ids = new long[n + 1];
+        PGRecord[] records = new PGRecord[n + 1];
+        System.arraycopy(current.ids, 0, ids, 0, insertAt);
+        System.arraycopy(current.records, 0, records, 0, insertAt);
+        ids[insertAt] = record.id();
+        records[insertAt] = record;
+        System.arraycopy(current.ids, insertAt, ids, insertAt + 1, n - insertAt);
+        System.arraycopy(current.records, insertAt, records, insertAt + 1, n - insertAt);
+        snapshot = new Snapshot(ids, records, current.generation + 1, System.currentTimeMillis());
+    }
+
+    private synchronized void updateBeds(PGBedsChangedEvent event) {
+        Snapshot current = snapshot;
+        int idx = Arrays.binarySearch(current.ids, event.getPgId());
+        if (idx < 0 || current.records[idx].version() >= event.getVersion()) {
+            return;
+        }
+        replace(current, idx, current.records[idx].withBeds(event.getAvailableBeds(), event.getVersion(), event.getUpdatedAt()));
+    }
+
+    private void replace(Snapshot current, int idx, PGRecord record) {
+        PGRecord[] records = current.records.clone();
+        records[idx] = record;
+        snapshot = new Snapshot(current.ids, records, current.generation + 1, System.currentTimeMillis());
+    }
+
+    private synchronized void remove(Long id) {
+        Snapshot current = snapshot;
+        int idx = Arrays.binarySearch(current.ids, id);
+        if (idx < 0) {
+            return;
+        }
+        int n = current.ids.length;
+        long[] ids = new long[n - 1];
+        PGRecord[] records = new PGRecord[n - 1];
+        System.arraycopy(current.ids, 0, ids, 0, idx);
+        System.arraycopy(current.records, 0, records, 0, idx);
+        System.arraycopy(current.ids, idx + 1, ids, idx, n - idx - 1);
+        System.arraycopy(current.records, idx + 1, records, idx, n - idx - 1);
+        snapshot = new Snapshot(ids, records, current.generation + 1, System.currentTimeMillis());
+    }
+
+    public record Listing(List<PGRecord> items, String etag, long lastModified) {
+    }
+
+    // ids are sorted ascending and parallel to records; generation is bumped on every write
+    private static final class Snapshot {
+        private final long[] ids;
+        private final PGRecord[] records;
+        private final List<PGRecord> view;
+        private final long generation;
+        private final long lastModified;
+
+        private Snapshot(long[] ids, PGRecord[] records, long generation, long lastModified) {
+            this.ids = ids;
+            this.records = records;
+            this.view = Collections.unmodifiableList(Arrays.asList(records));
+            this.generation = generation;
+            this.lastModified = lastModified;
+        }
+    }
+}
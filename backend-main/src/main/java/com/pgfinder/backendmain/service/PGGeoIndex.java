@@ -0,0 +1,261 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGNearbyResult;
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// In-process spatial index over PG coordinates.
+// PGs are bucketed into a fixed lat/lng grid (~1.1 km cells); a query only visits
+// the cells overlapping its bounding box and then checks exact distances. Boxes may
+// cross the antimeridian; when a box covers more cells than there are PGs, every PG is checked instead.
+@Service
+public class PGGeoIndex {
+
+    private static final double CELL_DEGREES = 0.01;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double MAX_RADIUS_KM = 100;
+    private static final double MAX_BOX_DEGREES = 2;
+    private static final int MAX_RESULTS = 500;
+
+    private final PGCatalog pgCatalog;
+
+    // Cell arrays are immutable and replaced on write, so readers never lock
+    private final Map<Long, Point[]> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+    // Last applied record version per PG (including PGs without coordinates), guarded by this
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    public PGGeoIndex(PGCatalog pgCatalog) {
+        this.pgCatalog = pgCatalog;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (PGRecord pg : pgCatalog.all()) {
+            put(pg);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            delete(event.getPgId());
+        } else {
+            put(event.getPg());
+        }
+    }
+
+    public List<PGNearbyResult> withinRadius(double lat, double lng, double radiusKm, int limit) {
+        validate(lat, lng);
+        if (radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        double radius = Math.min(radiusKm, MAX_RADIUS_KM);
+        double dLat = Math.toDegrees(radius / EARTH_RADIUS_KM); // same sphere as haversineKm
+        double dLng;
+        if (lat + dLat >= 90 || lat - dLat <= -90) {
+            dLng = 180; // the circle contains a pole, so it spans every longitude
+        } else {
+            // Widest longitude offset of the circle (reached north or south of its centre, not on it)
+            double ratio = Math.sin(radius / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat));
+            dLng = ratio >= 1 ? 180 : Math.toDegrees(Math.asin(ratio));
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        scan(lat - dLat, lng - dLng, lat + dLat, lng + dLng, p -> {
+            double d = haversineKm(lat, lng, p.lat, p.lng);
+            if (d <= radius) {
+                hits.add(new Hit(p.pgId, d));
+            }
+        });
+        return toResults(hits, limit);
+    }
+
+    // minLng > maxLng selects a box crossing the antimeridian
+    public List<PGNearbyResult> withinBox(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        validate(minLat, minLng);
+        validate(maxLat, maxLng);
+        if (minLat > maxLat) {
+            throw new IllegalArgumentException("minLat must not exceed maxLat");
+        }
+        boolean crossesAntimeridian = minLng > maxLng;
+        double east = crossesAntimeridian ? maxLng + 360 : maxLng;
+        if (maxLat - minLat > MAX_BOX_DEGREES || east - minLng > MAX_BOX_DEGREES) {
+            throw new IllegalArgumentException("Bounding box may span at most " + MAX_BOX_DEGREES + " degrees");
+        }
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLng = (minLng + east) / 2;
+
+        List<Hit> hits = new ArrayList<>();
+        scan(minLat, minLng, maxLat, east, p -> {
+            boolean inLng = crossesAntimeridian ? p.lng >= minLng || p.lng <= maxLng : p.lng >= minLng && p.lng <= maxLng;
+            if (p.lat >= minLat && p.lat <= maxLat && inLng) {
+                hits.add(new Hit(p.pgId, haversineKm(centerLat, centerLng, p.lat, p.lng)));
+            }
+        });
+        return toResults(hits, limit);
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    // Longitudes may run past +-180; that part of the box is scanned on the other side of the antimeridian.
+    // Visitors still check each point exactly, so the full-scan fallback returns the same hits.
+    private void scan(double minLat, double minLng, double maxLat, double maxLng, Consumer<Point> visitor) {
+        double south = Math.max(minLat, -90);
+        double north = Math.min(maxLat, 90);
+        boolean allLongitudes = maxLng - minLng >= 360 - CELL_DEGREES;
+        long lngCells = allLongitudes ? cellOf(180) - cellOf(-180) + 1 : cellOf(maxLng) - cellOf(minLng) + 1;
+        if ((cellOf(north) - cellOf(south) + 1) * lngCells > points.size()) {
+            points.values().forEach(visitor);
+            return;
+        }
+        if (allLongitudes) {
+            scanCells(south, -180, north, 180, visitor);
+        } else if (minLng < -180) {
+            scanCells(south, minLng + 360, north, 180, visitor);
+            scanCells(south, -180, north, maxLng, visitor);
+        } else if (maxLng > 180) {
+            scanCells(south, minLng, north, 180, visitor);
+            scanCells(south, -180, north, maxLng - 360, visitor);
+        } else {
+            scanCells(south, minLng, north, maxLng, visitor);
+        }
+    }
+
+    private void scanCells(double minLat, double minLng, double maxLat, double maxLng, Consumer<Point> visitor) {
+        long fromLat = cellOf(minLat);
+        long toLat = cellOf(maxLat);
+        long fromLng = cellOf(minLng);
+        long toLng = cellOf(maxLng);
+        for (long cy = fromLat; cy <= toLat; cy++) {
+            for (long cx = fromLng; cx <= toLng; cx++) {
+                Point[] bucket = cells.get(cellKey(cy, cx));
+                if (bucket != null) {
+                    for (Point p : bucket) {
+                        visitor.accept(p);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<PGNearbyResult> toResults(List<Hit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(h -> h.distanceKm));
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        List<PGNearbyResult> results = new ArrayList<>(Math.min(max, hits.size()));
+        for (Hit hit : hits) {
+            if (results.size() == max) {
+                break;
+            }
+            PGRecord pg = pgCatalog.get(hit.pgId);
+            if (pg != null) {
+                results.add(new PGNearbyResult(pg, hit.distanceKm));
+            }
+        }
+        return results;
+    }
+
+    private synchronized void put(PGRecord pg) {
+        // A late event from an earlier commit would move the PG back to its old coordinates
+        Long applied = versions.get(pg.id());
+        if (applied != null && applied > pg.version()) {
+            return;
+        }
+        versions.put(pg.id(), pg.version());
+        remove(pg.id());
+        if (pg.latitude() == null || pg.longitude() == null) {
+            return;
+        }
+        Point point = new Point(pg.id(), pg.latitude(), pg.longitude());
+        long key = cellKey(cellOf(point.lat), lngCellOf(point.lng));
+        Point[] bucket = cells.get(key);
+        Point[] updated = bucket == null ? new Point[1] : Arrays.copyOf(bucket, bucket.length + 1);
+        updated[updated.length - 1] = point;
+        cells.put(key, updated);
+        points.put(pg.id(), point);
+    }
+
+    private synchronized void delete(Long pgId) {
+        versions.remove(pgId);
+        remove(pgId);
+    }
+
+    private synchronized void remove(Long pgId) {
+        Point old = points.remove(pgId);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(cellOf(old.lat), lngCellOf(old.lng));
+        Point[] bucket = cells.get(key);
+        if (bucket == null) {
+            return;
+        }
+        Point[] updated = Arrays.stream(bucket).filter(p -> !p.pgId.equals(pgId)).toArray(Point[]::new);
+        if (updated.length == 0) {
+            cells.remove(key);
+        } else {
+            cells.put(key, updated);
+        }
+    }
+
+    private static void validate(double lat, double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+        }
+    }
+
+    private static long cellOf(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    // 180 and -180 are the same meridian; file both in the westernmost cell so scans ending at -180 see them
+    private static long lngCellOf(double lng) {
+        return cellOf(lng >= 180 ? -180 : lng);
+    }
+
+    private static long cellKey(long latCell, long lngCell) {
+        return (latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    private static final class Point {
+        private final Long pgId;
+        private final double lat;
+        private final double lng;
+
+        private Point(Long pgId, double lat, double lng) {
+            this.pgId = pgId;
+            this.lat = lat;
+            this.lng = lng;
+        }
+    }
+
+    private static final class Hit {
+        private final Long pgId;
+        private final double distanceKm;
+
+        private Hit(Long pgId, double distanceKm) {
+            this.pgId = pgId;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
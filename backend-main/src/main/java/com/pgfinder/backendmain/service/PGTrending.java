@@ -0,0 +1,205 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.PGRecord;
+import com.pgfinder.backendmain.dto.TrendingPG;
+import com.pgfinder.backendmain.event.BookingCreatedEvent;
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.event.ReviewAddedEvent;
+import com.pgfinder.backendmain.repository.BookingRepository;
+import com.pgfinder.backendmain.repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// "Trending" rail: per-PG activity scores with exponential time decay, ranked per locality.
+// Scores use forward decay: an event at time t adds weight * 2^((t - landmark) / halfLife), kept as a
+// logarithm so it never overflows. Every score shares the same decay factor at any instant, so the
+// order only changes when an event arrives. Each write refreshes the cached top-K of the affected
+// localities, and a read just returns the cached list.
+@Service
+public class PGTrending {
+
+    public static final String ALL = "";
+
+    private static final double HALF_LIFE_MS = 3 * 24 * 3600 * 1000.0;
+    private static final double BOOKING_WEIGHT = 3;
+    private static final double REVIEW_WEIGHT = 1;
+    private static final int TOP_K = 20;
+    private static final int SEED_DAYS = 30;
+
+    private static final Comparator<Score> BY_SCORE = Comparator.comparingDouble((Score s) -> s.logScore).reversed()
+            .thenComparing(s -> s.pgId);
+
+    private final PGCatalog pgCatalog;
+    private final BookingRepository bookingRepository;
+    private final ReviewRepository reviewRepository;
+
+    private final long landmark = System.currentTimeMillis();
+
+    // Read side: locality key -> current top-K, replaced whole on write
+    private final Map<String, List<Score>> tops = new ConcurrentHashMap<>();
+
+    // Writer-side state, guarded by this
+    private final Map<Long, Score> scores = new HashMap<>();
+    private final Map<String, TreeSet<Score>> ranked = new HashMap<>();
+
+    public PGTrending(PGCatalog pgCatalog, BookingRepository bookingRepository, ReviewRepository reviewRepository) {
+        this.pgCatalog = pgCatalog;
+        this.bookingRepository = bookingRepository;
+        this.reviewRepository = reviewRepository;
+    }
+
+    // Replays the last few weeks of activity; older events have decayed to nothing anyway
+    @PostConstruct
+    public synchronized void init() {
+        LocalDateTime since = LocalDateTime.now().minusDays(SEED_DAYS);
+        for (Object[] row : bookingRepository.findBookingTimesSince(since)) {
+            record((Long) row[0], BOOKING_WEIGHT, toMillis((LocalDateTime) row[1]));
+        }
+        for (Object[] row : reviewRepository.findReviewTimesSince(since)) {
+            record((Long) row[0], REVIEW_WEIGHT, toMillis((LocalDateTime) row[1]));
+        }
+    }
+
+    // Top PGs for a locality (case-insensitive), or across all PGs when locality is blank
+    public List<TrendingPG> top(String locality, int limit) {
+        List<Score> top = tops.getOrDefault(key(locality), List.of());
+        double decayNow = (System.currentTimeMillis() - landmark) / HALF_LIFE_MS * Math.log(2);
+        int max = Math.max(1, Math.min(limit, TOP_K));
+        List<TrendingPG> result = new ArrayList<>(Math.min(max, top.size()));
+        for (Score score : top) {
+            if (result.size() == max) {
+                break;
+            }
+            PGRecord pg = pgCatalog.get(score.pgId);
+            if (pg != null) {
+                result.add(new TrendingPG(pg, Math.exp(score.logScore - decayNow)));
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingCreated(BookingCreatedEvent event) {
+        record(event.getPgId(), BOOKING_WEIGHT, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReviewAdded(ReviewAddedEvent event) {
+        record(event.getPgId(), REVIEW_WEIGHT, System.currentTimeMillis());
+    }
+
+    // Keeps the locality of scored PGs in step with edits, and forgets deleted PGs
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPGChanged(PGChangedEvent event) {
+        Score old = scores.get(event.getPgId());
+        if (old == null) {
+            return;
+        }
+        unlink(old);
+        if (event.isDeleted()) {
+            scores.remove(old.pgId);
+        } else {
+            link(new Score(old.pgId, key(event.getPg().locality()), old.logScore));
+        }
+        refreshTop(ALL);
+        refreshTop(old.locality);
+        if (!event.isDeleted()) {
+            refreshTop(key(event.getPg().locality()));
+        }
+    }
+
+    private void record(Long pgId, double weight, long atMillis) {
+        PGRecord pg = pgCatalog.get(pgId);
+        if (pg == null) {
+            return;
+        }
+        double increment = Math.log(weight) + (atMillis - landmark) / HALF_LIFE_MS * Math.log(2);
+        Score old = scores.get(pgId);
+        double logScore = increment;
+        if (old != null) {
+            unlink(old);
+            logScore = logAdd(old.logScore, increment);
+        }
+        Score updated = new Score(pgId, key(pg.locality()), logScore);
+        link(updated);
+        refreshTop(ALL);
+        refreshTop(updated.locality);
+        if (old != null && !old.locality.equals(updated.locality)) {
+            refreshTop(old.locality);
+        }
+    }
+
+    private void link(Score score) {
+        scores.put(score.pgId, score);
+        ranked.computeIfAbsent(ALL, k -> new TreeSet<>(BY_SCORE)).add(score);
+        if (!score.locality.equals(ALL)) {
+            ranked.computeIfAbsent(score.locality, k -> new TreeSet<>(BY_SCORE)).add(score);
+        }
+    }
+
+    private void unlink(Score score) {
+        TreeSet<Score> all = ranked.get(ALL);
+        if (all != null) {
+            all.remove(score);
+        }
+        TreeSet<Score> local = ranked.get(score.locality);
+        if (local != null) {
+            local.remove(score);
+            if (local.isEmpty()) {
+                ranked.remove(score.locality);
+            }
+        }
+    }
+
+    private void refreshTop(String locality) {
+        TreeSet<Score> set = ranked.get(locality);
+        if (set == null || set.isEmpty()) {
+            tops.remove(locality);
+            return;
+        }
+        List<Score> top = new ArrayList<>(TOP_K);
+        Iterator<Score> it = set.iterator();
+        while (it.hasNext() && top.size() < TOP_K) {
+            top.add(it.next());
+        }
+        tops.put(locality, List.copyOf(top));
+    }
+
+    // log(e^a + e^b) without overflow
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static String key(String locality) {
+        return locality == null ? ALL : locality.trim().toLowerCase();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Score {
+        private final Long pgId;
+        private final String locality;
+        private final double logScore;
+
+        private Score(Long pgId, String locality, double logScore) {
+            this.pgId = pgId;
+            this.locality = locality;
+            this.logScore = logScore;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.repository.PGRepository;
+import com.pgfinder.backendmain.repository.ReviewRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Periodically compares the denormalized rating columns on PG with the reviews table
+// (one grouped query each) and repairs the PGs that drifted, each under its own row lock.
+@Service
+public class RatingReconciler {
+
+    private final PGRepository pgRepository;
+    private final ReviewRepository reviewRepository;
+    private final PGService pgService;
+
+    public RatingReconciler(PGRepository pgRepository, ReviewRepository reviewRepository, PGService pgService) {
+        this.pgRepository = pgRepository;
+        this.reviewRepository = reviewRepository;
+        this.pgService = pgService;
+    }
+
+    @Scheduled(initialDelayString = "${app.ratings.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.ratings.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        // pgId -> [unused, r1..r5]
+        Map<Long, long[]> actual = new HashMap<>();
+        for (Object[] row : reviewRepository.countRatingsByPg()) {
+            int rating = (Integer) row[1];
+            if (rating >= 1 && rating <= 5) {
+                actual.computeIfAbsent((Long) row[0], id -> new long[6])[rating] = (Long) row[2];
+            }
+        }
+
+        int repaired = 0;
+        for (Object[] row : pgRepository.findRatingAggregates()) {
+            Long pgId = (Long) row[0];
+            long[] histogram = actual.getOrDefault(pgId, new long[6]);
+            long count = 0;
+            long sum = 0;
+            boolean drifted = false;
+            for (int rating = 1; rating <= 5; rating++) {
+                count += histogram[rating];
+                sum += rating * histogram[rating];
+                drifted |= histogram[rating] != (Long) row[rating];
+            }
+            drifted |= sum != (Long) row[6] || count != (Long) row[7];
+            // Re-checked under the row lock, so a review committed between the two reads is not "repaired" away
+            if (drifted && pgService.reconcileRatings(pgId)) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            System.out.println("Rating reconciler repaired aggregates of " + repaired + " PGs.");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.event.PGChangedEvent;
+import com.pgfinder.backendmain.repository.WaitlistRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory FIFO of waiting users per PG, so promotion takes the head in O(1) instead of querying the
+// table. Leaving is lazy: the entry is marked and skipped when it reaches the head. The waitlist_entries
+// table stays authoritative; WaitlistService confirms every candidate there before promoting it.
+@Service
+public class WaitlistQueue {
+
+    private final WaitlistRepository waitlistRepository;
+
+    private final Map<Long, PGQueue> queues = new ConcurrentHashMap<>();
+
+    public WaitlistQueue(WaitlistRepository waitlistRepository) {
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Object[] row : waitlistRepository.findWaitingRows()) {
+            add((Long) row[1], new Waiter((Long) row[0], (String) row[2], (Boolean) row[3]));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPGChanged(PGChangedEvent event) {
+        if (event.isDeleted()) {
+            queues.remove(event.getPgId());
+        }
+    }
+
+    public void add(Long pgId, Waiter waiter) {
+        PGQueue queue = queues.computeIfAbsent(pgId, id -> new PGQueue());
+        synchronized (queue) {
+            queue.waiting.addLast(waiter);
+        }
+    }
+
+    // Marks an entry as gone; it is dropped when it reaches the head
+    public void discard(Long pgId, Long entryId) {
+        PGQueue queue = queues.get(pgId);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.discarded.add(entryId);
+            }
+        }
+    }
+
+    // Removes and returns the oldest live waiter, or null when nobody is waiting
+    public Waiter poll(Long pgId) {
+        PGQueue queue = queues.get(pgId);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            Waiter head;
+            while ((head = queue.waiting.pollFirst()) != null) {
+                if (!queue.discarded.remove(head.id())) {
+                    return head;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Puts waiters taken by poll back at the head, in their original order (e.g. after a rollback)
+    public void restore(Long pgId, List<Waiter> waiters) {
+        PGQueue queue = queues.computeIfAbsent(pgId, id -> new PGQueue());
+        synchronized (queue) {
+            for (int i = waiters.size() - 1; i >= 0; i--) {
+                queue.waiting.addFirst(waiters.get(i));
+            }
+        }
+    }
+
+    // 1-based position among live waiters, or null when the entry is not queued
+    public Integer position(Long pgId, Long entryId) {
+        PGQueue queue = queues.get(pgId);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            int position = 0;
+            for (Waiter waiter : queue.waiting) {
+                if (queue.discarded.contains(waiter.id())) {
+                    continue;
+                }
+                position++;
+                if (waiter.id().equals(entryId)) {
+                    return position;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Waiter(Long id, String username, boolean requestAid) {
+    }
+
+    private static final class PGQueue {
+        private final Deque<Waiter> waiting = new ArrayDeque<>();
+        private final Set<Long> discarded = new HashSet<>();
+    }
+}
@@ -0,0 +1,13 @@
+package com.pgfinder.backendmain.service;
+
+import com.pgfinder.backendmain.dto.WaitlistSummary;
+
+import java.util.List;
+
+public interface WaitlistService {
+    WaitlistSummary join(Long pgId, String username, boolean requestAid);
+    void leave(Long entryId, String username);
+    List<WaitlistSummary> getWaitlistByUser(String username);
+    List<WaitlistQueue.Waiter> claim(Long pgId, int count);
+    void promoted(Long entryId, Long bookingId);
+}
@@ -2,10 +2,14 @@ package com.pgfinder.backendmain.service.impl;
 
 import com.pgfinder.backendmain.entity.PG;
 import com.pgfinder.backendmain.entity.Review;
+import com.pgfinder.backendmain.event.ReviewAddedEvent;
 import com.pgfinder.backendmain.repository.PGRepository;
 import com.pgfinder.backendmain.repository.ReviewRepository;
+import com.pgfinder.backendmain.service.PGService;
 import com.pgfinder.backendmain.service.ReviewService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,16 +19,26 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final PGRepository pgRepository;
+    private final PGService pgService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepository, PGRepository pgRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, PGRepository pgRepository, PGService pgService,
+                             ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.pgRepository = pgRepository;
+        this.pgService = pgService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public Review addReview(Long pgId, String username, int rating, String comment) {
-        PG pg = pgRepository.findById(pgId)
-                .orElseThrow(() -> new RuntimeException("PG not found"));
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        // Aggregates first: the row lock it takes orders this review against RatingReconciler
+        pgService.recordRating(pgId, rating);
+        PG pg = pgRepository.getReferenceById(pgId);
 
         Review review = new Review();
         review.setPg(pg);
@@ -33,7 +47,9 @@ public class ReviewServiceImpl implements ReviewService {
         review.setComment(comment);
         review.setCreatedAt(LocalDateTime.now());
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewAddedEvent(saved.getId(), pgId, rating));
+        return saved;
     }
 
     @Override
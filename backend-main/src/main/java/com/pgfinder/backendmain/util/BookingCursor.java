@@ -0,0 +1,39 @@
+package com.pgfinder.backendmain.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque continuation token for the aid-request queue: the last (bookingDate, id) seen
+public class BookingCursor {
+
+    private final LocalDateTime bookingDate;
+    private final Long id;
+
+    public BookingCursor(LocalDateTime bookingDate, Long id) {
+        this.bookingDate = bookingDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getBookingDate() { return bookingDate; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = bookingDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            // Bad Base64, bad number or bad timestamp
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pgfinder.backendmain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgfinder.backendmain.entity.PG;
+import com.pgfinder.backendmain.repository.PGRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The NDJSON export (GET /api/pgs/export) against the test database, whose driver rejects MySQL's streaming fetch size
+@SpringBootTest
+@ActiveProfiles("test")
+class PGExporterTest {
+
+    @Autowired
+    private PGExporter pgExporter;
+
+    @Autowired
+    private PGRepository pgRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<PG> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        pgRepository.deleteAll(created);
+        created.clear();
+    }
+
+    @Test
+    void exportsOneLinePerPGWithItsImagesInUploadOrder() throws Exception {
+        PG withImages = save("Export PG A", List.of("https://img.example/c.jpg", "https://img.example/a.jpg",
+                "https://img.example/b.jpg"));
+        PG withoutImages = save("Export PG B", List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pgExporter.exportNdjson(out);
+
+        Map<Long, Map<?, ?>> lines = new HashMap<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            Map<?, ?> pg = objectMapper.readValue(line, Map.class);
+            lines.put(((Number) pg.get("id")).longValue(), pg);
+        }
+        assertThat(lines.get(withImages.getId()).get("name")).isEqualTo("Export PG A");
+        assertThat(lines.get(withImages.getId()).get("imageUrls")).isEqualTo(List.of("https://img.example/c.jpg",
+                "https://img.example/a.jpg", "https://img.example/b.jpg"));
+        assertThat(lines.get(withoutImages.getId()).get("imageUrls")).isEqualTo(List.of());
+    }
+
+    private PG save(String name, List<String> imageUrls) {
+        PG pg = new PG();
+        pg.setName(name);
+        pg.setAddress("Aundh, Pune");
+        pg.setPrice(8000.0);
+        pg.setOwnerUsername("export_owner");
+        pg.setGender("Girls");
+        pg.setImageUrls(new ArrayList<>(imageUrls));
+        PG saved = pgRepository.save(pg);
+        created.add(saved);
+        return saved;
+    }
+}